@@ -0,0 +1,269 @@
+package forestrunner;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+// Plays the real game headless, ForestRunner.tick() followed by ForestRunner.paintFrame() into
+// a BufferedImage, and fails (exit code 1) if a tick and frame allocate anything once warmed
+// up. That covers the whole tick (swept contacts, events onto the bus, profiler, JFR tick
+// event, Rollback with two players) and the whole draw path. Two kinds of step allocate by
+// design and are counted on their own: ticks that change the level (new level, new labels)
+// and frames that redraw a HUD value that changed (score, lives, boosts, progress bar).
+// A World with every entity awake then checks the forked update phase, counting the fork-join
+// workers' bytes too.
+//
+// The measured stretch is first played once to rehearse it: pools, grid buckets and tables
+// grow to what it needs. The game is then put back to where the stretch starts and measured
+// playing it again, when nothing new is needed. Going back deoptimises code the JIT has to
+// compile again, which can allocate for a while, so up to MEASURED_PASSES passes are made;
+// garbage made every tick shows up in every one of them.
+// Run with the project root as working directory.
+public class AllocationCheck {
+    private static final int WARMUP_TICKS = 30_000;
+    private static final int MEASURED_TICKS = 5_000; // 125 jump cycles, so every pass presses the same keys
+    private static final int MEASURED_PASSES = 3;
+    private static final int STATE_BYTES = 1 << 20;
+    private static final int FORKED_LEVEL = 400;
+    private static final int WIDE_VIEW_WIDTH = 1_000_000;
+
+    public static void main(String[] args) {
+        if (AllocationCounter.currentThreadBytes() < 0) {
+            System.out.println("Thread allocation counters are not supported by this JVM");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        // Endless, so the runners keep meeting new chunks however far they get
+        boolean ok = checkGame("one player", "--endless", "--seed=7");
+        ok &= checkGame("two players, input delay 3", "--endless", "--seed=7", "--players=2", "--input-delay=3");
+        ok &= checkForkedUpdate();
+        if (!ok) {
+            System.out.println("FAIL: the steady-state tick and draw path allocates");
+            System.exit(1);
+        }
+        System.out.println("OK: the steady-state tick and draw path is allocation-free");
+    }
+
+    private static boolean checkGame(String name, String... args) {
+        ForestRunner game = ForestRunner.headless(GameOptions.parse(args));
+        World world = game.world();
+        BufferedImage frame = new BufferedImage(ForestRunner.SCREEN_WIDTH, ForestRunner.SCREEN_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        Input input = new Input(game);
+
+        for (int t = 0; t < WARMUP_TICKS; t++) {
+            step(game, g, input, t);
+        }
+        ByteBuffer start = ByteBuffer.allocate(STATE_BYTES);
+        world.writeTo(start);
+        start.flip();
+        for (int t = WARMUP_TICKS; t < WARMUP_TICKS + MEASURED_TICKS; t++) {
+            step(game, g, input, t);
+        }
+
+        for (int pass = 1; pass <= MEASURED_PASSES; pass++) {
+            long hud = hudKey(world); // What the HUD shows as the last pass ends
+            start.rewind();
+            game.restore(start);
+
+            long steadyBytes = 0;
+            int steady = 0;
+            long changedBytes = 0;
+            int changed = 0;
+            for (int t = WARMUP_TICKS; t < WARMUP_TICKS + MEASURED_TICKS; t++) {
+                input.play(t);
+                int level = world.level;
+                long before = AllocationCounter.currentThreadBytes();
+                game.tick();
+                game.paintFrame(g);
+                long allocated = AllocationCounter.currentThreadBytes() - before;
+                // Keyed on what this frame drew: lives put back show up as a change next frame
+                long newHud = hudKey(world);
+                keepAlive(world);
+                if (world.level != level || newHud != hud) {
+                    changedBytes += allocated;
+                    changed++;
+                } else {
+                    steadyBytes += allocated;
+                    steady++;
+                }
+                hud = newHud;
+            }
+
+            System.out.printf("%s, pass %d: %d steady ticks and frames, %d bytes (%.2f bytes/tick); %d level"
+                            + " or HUD changes, %d bytes; level %d, score %d%n", name, pass, steady, steadyBytes,
+                    steadyBytes / (double) Math.max(1, steady), changed, changedBytes, world.level, world.score);
+            if (world.gameOver || steady < MEASURED_TICKS / 2) {
+                System.out.printf("%s: FAIL, the run did not stay in play (game over %b)%n", name, world.gameOver);
+                break;
+            }
+            if (steadyBytes == 0) {
+                g.dispose();
+                return true;
+            }
+        }
+        g.dispose();
+        return false;
+    }
+
+    private static void step(ForestRunner game, Graphics2D g, Input input, int tick) {
+        input.play(tick);
+        game.tick();
+        game.paintFrame(g);
+        keepAlive(game.world());
+    }
+
+    // A big level with a view so wide that every entity is awake, so the update phase forks
+    // on the common pool. Level changes are counted on their own as above.
+    private static boolean checkForkedUpdate() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        World world = new World(ForestRunner.GROUND_Y, WIDE_VIEW_WIDTH, false, WorldEvents.NONE);
+        world.updatePool = pool;
+        world.reset(FORKED_LEVEL, FORKED_LEVEL);
+        boolean[] keys = new boolean[256];
+        for (int t = 0; t < WARMUP_TICKS / 3; t++) {
+            script(keys, t);
+            world.tick(keys);
+            keepAlive(world);
+        }
+        ByteBuffer start = ByteBuffer.allocate(STATE_BYTES);
+        world.writeTo(start);
+        start.flip();
+        for (int t = 0; t < MEASURED_TICKS; t++) {
+            script(keys, t);
+            world.tick(keys);
+            keepAlive(world);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] workers = workerIds(pool);
+        for (int pass = 1; pass <= MEASURED_PASSES; pass++) {
+            start.rewind();
+            world.readFrom(start);
+            long steadyBytes = 0;
+            int transitions = 0;
+            for (int t = 0; t < MEASURED_TICKS; t++) {
+                script(keys, t);
+                int level = world.level;
+                // Reading the workers' counters allocates the arrays, so this thread is
+                // counted on its own just around the tick
+                long[] before = threads.getThreadAllocatedBytes(workers);
+                long selfBefore = AllocationCounter.currentThreadBytes();
+                world.tick(keys);
+                long allocated = AllocationCounter.currentThreadBytes() - selfBefore;
+                long[] after = threads.getThreadAllocatedBytes(workers);
+                keepAlive(world);
+                if (world.level != level) {
+                    transitions++;
+                    continue;
+                }
+                for (int i = 0; i < workers.length; i++) {
+                    if (before[i] >= 0 && after[i] >= 0) {
+                        allocated += after[i] - before[i];
+                    }
+                }
+                steadyBytes += allocated;
+            }
+
+            System.out.printf("forked update, pass %d: %d ticks with %d of %d animals awake, %d bytes on this"
+                            + " thread and %d %s (%d level changes not counted)%n", pass, MEASURED_TICKS,
+                    world.activeAnimals(), world.animals.size(), steadyBytes, workers.length,
+                    workers.length == 1 ? "worker" : "workers", transitions);
+            if (world.activeAnimals() < World.PARALLEL_THRESHOLD) {
+                System.out.println("forked update: FAIL, too few animals awake to fork");
+                return false;
+            }
+            if (steadyBytes == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The pool's worker threads; the warm-up has started all the ones the update uses
+    private static long[] workerIds(ForkJoinPool pool) {
+        List<Long> ids = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool) {
+                ids.add(thread.getId());
+            }
+        }
+        long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    // What the HUD layers are keyed on: a change repaints a layer, which allocates
+    private static long hudKey(World world) {
+        long key = (long) world.score * 31 + world.level;
+        for (Player player : world.players) {
+            key = key * 31 + player.lives;
+            key = key * 31 + (player.hasSpeedBoost ? 1 : 0) + (player.hasJumpBoost ? 2 : 0);
+        }
+        return key * 31 + (int) (150 * world.levelProgress());
+    }
+
+    // Runs must last: nobody in the check loses their last life
+    private static void keepAlive(World world) {
+        for (Player player : world.players) {
+            player.lives = 3;
+        }
+    }
+
+    // Hold RIGHT, hold UP for 2 ticks every 40
+    private static void script(boolean[] keys, int tick) {
+        keys[KeyEvent.VK_RIGHT] = true;
+        keys[KeyEvent.VK_UP] = tick % 40 < 2;
+    }
+
+    // The same script through the game's key handler, for both players; the events are made once
+    private static final class Input {
+        private final ForestRunner game;
+        private final KeyEvent[] run;
+        private final KeyEvent[] jump;
+        private final KeyEvent[] land;
+
+        Input(ForestRunner game) {
+            this.game = game;
+            run = keys(KeyEvent.KEY_PRESSED, KeyEvent.VK_RIGHT, KeyEvent.VK_D);
+            jump = keys(KeyEvent.KEY_PRESSED, KeyEvent.VK_UP, KeyEvent.VK_W);
+            land = keys(KeyEvent.KEY_RELEASED, KeyEvent.VK_UP, KeyEvent.VK_W);
+        }
+
+        void play(int tick) {
+            if (tick == 0) {
+                press(run);
+            }
+            if (tick % 40 == 0) {
+                press(jump);
+            } else if (tick % 40 == 2) {
+                for (KeyEvent release : land) {
+                    game.keyReleased(release);
+                }
+            }
+        }
+
+        private void press(KeyEvent[] events) {
+            for (KeyEvent event : events) {
+                game.keyPressed(event);
+            }
+        }
+
+        private KeyEvent[] keys(int id, int first, int second) {
+            return new KeyEvent[] {
+                    new KeyEvent(game, id, 0, 0, first, KeyEvent.CHAR_UNDEFINED),
+                    new KeyEvent(game, id, 0, 0, second, KeyEvent.CHAR_UNDEFINED)
+            };
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package forestrunner;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+// Animates and draws thousands of animals and fails (exit code 1) if a warmed-up frame
+// allocates, or if creating an animal costs anything close to a copy of its image: every
+// animal must share the one SpriteSheet atlas. Run with the project root as working directory.
+public class AnimationCheck {
+    private static final int ANIMALS = 5000;
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int MEASURED_FRAMES = 1_000;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (AllocationCounter.currentThreadBytes() < 0) {
+            System.out.println("Thread allocation counters are not supported by this JVM");
+            System.exit(2);
+        }
+
+        new WildAnimal(); // Decodes the image and builds the atlas once
+        GameRandom random = new GameRandom(1);
+        WildAnimal[] animals = new WildAnimal[ANIMALS];
+        long before = AllocationCounter.currentThreadBytes();
+        for (int i = 0; i < ANIMALS; i++) {
+            animals[i] = new WildAnimal().reset((i % 25) * 32, 460, 1, random);
+        }
+        long perAnimal = (AllocationCounter.currentThreadBytes() - before) / ANIMALS;
+        long imageBytes = 38L * 42 * 4;
+
+        BufferedImage target = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        for (int f = 0; f < WARMUP_FRAMES; f++) {
+            frame(animals, g);
+        }
+        before = AllocationCounter.currentThreadBytes();
+        long start = System.nanoTime();
+        for (int f = 0; f < MEASURED_FRAMES; f++) {
+            frame(animals, g);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = AllocationCounter.currentThreadBytes() - before;
+        g.dispose();
+
+        System.out.printf("%d animals: %d bytes each to create (one %dx%d image is %d bytes)%n",
+                ANIMALS, perAnimal, 38, 42, imageBytes);
+        System.out.printf("%d frames: %.3f ms/frame, %d bytes allocated (%.2f bytes/frame)%n",
+                MEASURED_FRAMES, elapsed / 1e6 / MEASURED_FRAMES, allocated, allocated / (double) MEASURED_FRAMES);
+        if (perAnimal >= imageBytes) {
+            System.out.println("FAIL: animals do not share their sprite sheet");
+            System.exit(1);
+        }
+        if (allocated > 0) {
+            System.out.println("FAIL: animating or drawing allocates");
+            System.exit(1);
+        }
+        System.out.println("OK: one shared atlas, allocation-free animation");
+    }
+
+    private static void frame(WildAnimal[] animals, Graphics2D g) {
+        for (WildAnimal animal : animals) {
+            animal.savePosition();
+            animal.update();
+            animal.draw(g, animal.x - 400, 1.0f);
+        }
+    }
+}
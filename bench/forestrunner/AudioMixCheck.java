@@ -0,0 +1,112 @@
+package forestrunner;
+
+// Drives the software mixer offline (no audio device needed): overlapping plays of the same
+// effect must stack, a full voice set must steal the oldest one-shot but never the looping
+// track, and mixing a block must not allocate. Producers racing on the command queue must not
+// drop commands while it has room. Reports the cost of one block.
+// Run with the project root as working directory.
+public class AudioMixCheck {
+    private static final int BUFFER_FRAMES = 512;
+    private static final int RACE_ROUNDS = 200;
+    private static final int RACE_PRODUCERS = 4;
+    private static final int RACE_PLAYS = 60; // 240 commands a round, the queue holds 256
+
+    public static void main(String[] args) {
+        AudioMixer.Sample collect = AudioMixer.load("sounds/collect.wav");
+        AudioMixer.Sample levelUp = AudioMixer.load("sounds/levelup.wav");
+        if (collect == null || levelUp == null) {
+            System.out.println("Sample files missing");
+            System.exit(2);
+        }
+
+        AudioMixer mixer = new AudioMixer(4, BUFFER_FRAMES, AudioMixer.VoiceStealing.OLDEST);
+        byte[] block = new byte[BUFFER_FRAMES * AudioMixer.FORMAT.getFrameSize()];
+        boolean ok = true;
+
+        // Three quick pickups: each one gets its own voice
+        for (int i = 0; i < 3; i++) {
+            mixer.play(collect, 1f, false);
+            mixer.mix(block, BUFFER_FRAMES);
+        }
+        ok &= expect("overlapping plays", mixer.activeVoices(), 3);
+
+        // A looping track plus more one-shots than voices: the oldest one-shots give way
+        mixer.play(levelUp, 0.3f, true);
+        for (int i = 0; i < 5; i++) {
+            mixer.play(collect, 1f, false);
+        }
+        mixer.mix(block, BUFFER_FRAMES);
+        ok &= expect("voices in use", mixer.activeVoices(), 4);
+        ok &= expect("stolen voices", (int) mixer.stolenVoices(), 5);
+
+        // Steady state: mixing four voices must not allocate
+        long blocks = 20_000;
+        for (int i = 0; i < blocks; i++) {
+            keepBusy(mixer, collect, i);
+            mixer.mix(block, BUFFER_FRAMES);
+        }
+        long before = AllocationCounter.currentThreadBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < blocks; i++) {
+            keepBusy(mixer, collect, i);
+            mixer.mix(block, BUFFER_FRAMES);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = AllocationCounter.currentThreadBytes() - before;
+        double blockMs = BUFFER_FRAMES * 1000.0 / AudioMixer.SAMPLE_RATE;
+        System.out.printf("mix: %.2f us per %d-frame block (%.1f ms of audio), %d bytes allocated%n",
+                nanos / 1000.0 / blocks, BUFFER_FRAMES, blockMs, before < 0 ? -1 : bytes);
+        if (before >= 0) {
+            ok &= expect("bytes allocated while mixing", (int) bytes, 0);
+        }
+
+        mixer.stopAll();
+        mixer.mix(block, BUFFER_FRAMES);
+        ok &= expect("voices after stopAll", mixer.activeVoices(), 0);
+
+        // Between two drains the producers post fewer commands than the queue holds
+        long droppedBefore = mixer.droppedCommands();
+        for (int round = 0; round < RACE_ROUNDS; round++) {
+            race(mixer, collect);
+            mixer.mix(block, BUFFER_FRAMES);
+        }
+        ok &= expect("commands dropped by racing producers", (int) (mixer.droppedCommands() - droppedBefore), 0);
+
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void race(AudioMixer mixer, AudioMixer.Sample sample) {
+        Thread[] producers = new Thread[RACE_PRODUCERS];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int p = 0; p < RACE_PLAYS; p++) {
+                    mixer.play(sample, 0.5f, false);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void keepBusy(AudioMixer mixer, AudioMixer.Sample sample, int block) {
+        if (block % 8 == 0) {
+            mixer.play(sample, 0.8f, false);
+        }
+    }
+
+    private static boolean expect(String what, int actual, int expected) {
+        if (actual != expected) {
+            System.out.println(what + ": expected " + expected + " but was " + actual);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+// Checks the two shortcuts in the entity update phase and fails (exit code 1) if either one
+// changes the simulation:
+//  - a dormant animal fast-forwarded on waking ends up exactly where one stepped every tick is
+//  - a tick whose update phase runs on a ForkJoinPool matches the serial tick bit for bit
+// then times whole ticks serial, on one fork-join worker and on one per core, on a level below
+// the fork threshold and one well above it, with every entity awake.
+// Run from the project root so the sprites in images/ resolve.
+public class EntityUpdateCheck {
+    private static final int GROUND_Y = 500;
+    private static final int VIEW_WIDTH = 800;
+    private static final int WIDE_VIEW_WIDTH = 1_000_000;
+    private static final int TICKS = 5_000;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 7;
+
+    public static void main(String[] args) {
+        boolean ok = checkFastForward();
+        ok &= checkParallel(false);
+        ok &= checkParallel(true);
+        time();
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean checkFastForward() {
+        GameRandom seeds = new GameRandom(7);
+        int mismatches = 0;
+        for (int n = 0; n < 200; n++) {
+            long seed = seeds.nextLong();
+            int gameSpeed = 1 + n % 40;
+            WildAnimal stepped = new WildAnimal().reset(1000, GROUND_Y - 40, gameSpeed, new GameRandom(seed));
+            WildAnimal sleeper = new WildAnimal().reset(1000, GROUND_Y - 40, gameSpeed, new GameRandom(seed));
+            sleeper.spawnedAt(0);
+            GameRandom gaps = new GameRandom(seed ^ 1);
+            long tick = 0;
+            for (int wake = 0; wake < 50; wake++) {
+                long target = tick + 1 + gaps.nextInt(2_000);
+                while (tick < target) {
+                    stepped.update();
+                    tick++;
+                }
+                sleeper.updateTo(tick);
+                if (sleeper.x != stepped.x) {
+                    mismatches++;
+                    break;
+                }
+            }
+        }
+        System.out.println("fast-forward: " + (mismatches == 0 ? "OK, 200 animals x 50 wake-ups match" : "FAIL, " + mismatches + " animals differ"));
+        return mismatches == 0;
+    }
+
+    // Forking goes by awake entities, so the fixed level runs with a view wide enough to keep
+    // all of them awake
+    private static boolean checkParallel(boolean endless) {
+        int viewWidth = endless ? VIEW_WIDTH : WIDE_VIEW_WIDTH;
+        World serial = new World(GROUND_Y, viewWidth, endless, WorldEvents.NONE);
+        World parallel = new World(GROUND_Y, viewWidth, endless, WorldEvents.NONE);
+        parallel.updatePool = ForkJoinPool.commonPool();
+        // Endless runs cap what is alive below the fork threshold, so that case checks the serial path
+        int level = endless ? 1 : 400;
+        serial.reset(42, level);
+        parallel.reset(42, level);
+        boolean[] keys = new boolean[256];
+        for (int t = 0; t < TICKS; t++) {
+            script(keys, t);
+            serial.tick(keys);
+            parallel.tick(keys);
+            if (checksum(serial) != checksum(parallel)) {
+                System.out.println((endless ? "endless" : "level " + level) + ": FAIL, parallel differs at tick " + t);
+                return false;
+            }
+        }
+        if (!endless && parallel.activeAnimals() < World.PARALLEL_THRESHOLD) {
+            System.out.printf("level %d: FAIL, only %d animals awake, the update never forked%n", level,
+                    parallel.activeAnimals());
+            return false;
+        }
+        System.out.printf("%s: OK, %d ticks identical (%d animals, %d awake, score %d)%n",
+                endless ? "endless" : "level " + level, TICKS, serial.animals.size(), serial.activeAnimals(),
+                serial.score);
+        return true;
+    }
+
+    // Every variant plays the same ticks on its own world. All of them are warmed up before any
+    // is timed, then each round runs them in a different order and the median round is reported,
+    // so neither JIT warm-up nor going first or last favours one of them.
+    private static void time() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = new ForkJoinPool(cores);
+        ForkJoinPool[] pools = {null, single, all};
+        String[] names = {"serial", "fork-join, 1 worker", "fork-join, " + cores + (cores == 1 ? " worker" : " workers")};
+        System.out.printf("%8s %9s %8s %14s%n", "level", "animals", "awake", "ticks/s");
+        for (int level : new int[]{100, 1000}) {
+            World[] worlds = new World[pools.length];
+            for (int v = 0; v < pools.length; v++) {
+                worlds[v] = new World(GROUND_Y, WIDE_VIEW_WIDTH, false, WorldEvents.NONE);
+                worlds[v].updatePool = pools[v];
+            }
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                for (World world : worlds) {
+                    run(world, level);
+                }
+            }
+            double[][] rates = new double[pools.length][TIMED_ROUNDS];
+            for (int round = 0; round < TIMED_ROUNDS; round++) {
+                for (int k = 0; k < pools.length; k++) {
+                    int v = (round + k) % pools.length;
+                    rates[v][round] = run(worlds[v], level);
+                }
+            }
+            for (int v = 0; v < pools.length; v++) {
+                Arrays.sort(rates[v]);
+                System.out.printf("%8d %9d %8d %14.0f  %s%n", level, worlds[v].animals.size(),
+                        worlds[v].activeAnimals(), rates[v][TIMED_ROUNDS / 2], names[v]);
+            }
+        }
+        single.shutdown();
+        all.shutdown();
+    }
+
+    // Ticks per second over one run of TICKS from the start of the level
+    private static double run(World world, int level) {
+        boolean[] keys = new boolean[256];
+        world.reset(level, level);
+        long start = System.nanoTime();
+        for (int t = 0; t < TICKS; t++) {
+            script(keys, t);
+            world.tick(keys);
+            world.player.lives = 3; // Timing needs the run to last
+        }
+        return TICKS * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static long checksum(World world) {
+        long sum = world.score * 31L + world.player.x;
+        for (int i = 0; i < world.animals.size(); i++) {
+            sum = sum * 31 + world.animals.get(i).x;
+        }
+        return sum;
+    }
+
+    // Hold RIGHT, tap UP every 40 ticks
+    private static void script(boolean[] keys, int tick) {
+        keys[KeyEvent.VK_RIGHT] = true;
+        keys[KeyEvent.VK_UP] = tick % 40 < 2;
+    }
+}
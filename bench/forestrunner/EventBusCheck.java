@@ -0,0 +1,125 @@
+package forestrunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pushes events through an EventBus in tick-sized bursts, with a fast and a deliberately slow
+// subscriber, and fails (exit code 1) if:
+//  - a subscriber misses, repeats or reorders an event that was not dropped
+//  - what was delivered and what was dropped do not add up to what was published
+//  - publishing allocates once warmed up (the tick thread must stay allocation-free)
+// Also prints what a publish costs the tick thread, in its own CPU time: on a machine with few
+// cores the subscribers it wakes run inside any wall-clock window around the publish.
+public class EventBusCheck {
+    private static final int WARMUP = 200_000;
+    private static final int EVENTS = 200_000;
+    private static final int BURST = 8; // Events per simulated tick; the tick thread yields after each
+
+    public static void main(String[] args) throws InterruptedException {
+        if (AllocationCounter.currentThreadBytes() < 0) {
+            System.out.println("Thread allocation counters are not supported by this JVM");
+            System.exit(2);
+        }
+
+        EventBus bus = new EventBus(1024);
+        Checker fast = new Checker(0);
+        Checker slow = new Checker(2_000);
+        bus.subscribe("fast", fast);
+        bus.subscribe("slow", slow);
+        bus.start();
+
+        burst(bus, WARMUP);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long before = AllocationCounter.currentThreadBytes();
+        burst(bus, EVENTS);
+        long allocated = AllocationCounter.currentThreadBytes() - before;
+        long elapsed = threads.getCurrentThreadCpuTime() - cpuStart;
+        bus.stop();
+
+        long attempts = WARMUP + EVENTS;
+        long published = bus.publishedCount();
+        long dropped = bus.droppedCount();
+        System.out.printf("%d events: %.1f ns of publisher CPU per event, %d bytes allocated, %d published, %d dropped%n",
+                attempts, elapsed / (double) EVENTS, allocated, published, dropped);
+        boolean ok = report("fast", fast, published) & report("slow", slow, published);
+        if (published + dropped != attempts) {
+            System.out.println("FAIL: published and dropped do not add up");
+            ok = false;
+        }
+        if (allocated > 0) {
+            System.out.println("FAIL: publishing allocates");
+            ok = false;
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("OK: every subscriber saw the whole stream in order");
+    }
+
+    private static void burst(EventBus bus, int events) {
+        for (int i = 0; i < events; i++) {
+            publish(bus, i);
+            if (i % BURST == BURST - 1) {
+                Thread.yield();
+            }
+        }
+    }
+
+    // Cycles through every event type so the checker can tell them apart
+    private static void publish(EventBus bus, int i) {
+        switch (i % 6) {
+            case 0:
+                bus.fruitCollected();
+                break;
+            case 1:
+                bus.powerUpCollected();
+                break;
+            case 2:
+                bus.playerHit(World.Hazard.ANIMAL);
+                break;
+            case 3:
+                bus.levelUp(i);
+                break;
+            case 4:
+                bus.gameOver();
+                break;
+            default:
+                bus.jumped();
+                break;
+        }
+    }
+
+    private static boolean report(String name, Checker checker, long published) {
+        boolean ok = checker.errors.get() == 0 && checker.received.get() == published;
+        System.out.printf("  %-5s %s, %d received, %d out of order%n", name, ok ? "OK" : "FAIL",
+                checker.received.get(), checker.errors.get());
+        return ok;
+    }
+
+    private static final class Checker implements EventBus.Handler {
+        private final int spinPerEvent;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long expected;
+        private long sink;
+
+        Checker(int spinPerEvent) {
+            this.spinPerEvent = spinPerEvent;
+        }
+
+        @Override
+        public void onEvent(GameEvent event) {
+            if (event.sequence != expected || event.type == null
+                    || (event.type == GameEvent.Type.DAMAGE_TAKEN) != (event.hazard != null)) {
+                errors.incrementAndGet();
+            }
+            expected = event.sequence + 1;
+            for (int i = 0; i < spinPerEvent; i++) {
+                sink += i ^ event.level;
+            }
+            received.incrementAndGet();
+        }
+    }
+}
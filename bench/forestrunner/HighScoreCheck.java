@@ -0,0 +1,237 @@
+package forestrunner;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.CRC32;
+
+// Records games into HighScores from several threads at once and fails (exit code 1) if:
+//  - the table loses or miscounts a game, or its top list, ranks or percentiles differ from
+//    sorting every score by hand
+//  - reopening the file (after compaction has rewritten it) gives a different table
+//  - the log does not stay compact, or a torn record at its end is not cut off on open
+//  - a score count above the int range, or one in a version 1 file, is not read back whole
+// then times the queries the game-over screen makes. record() is timed in the recording
+// threads' own CPU time, since on a machine with few cores the writer runs in any wall-clock window.
+public class HighScoreCheck {
+    private static final int THREADS = 8;
+    private static final int GAMES_PER_THREAD = 25_000;
+    private static final int QUERIES = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("highscores", ".dat");
+        Files.delete(file);
+        try {
+            int[] expected = recordConcurrently(file);
+            boolean ok;
+            try (HighScores reopened = HighScores.open(file)) {
+                ok = check("reopened", reopened.table(), expected);
+            }
+            long size = Files.size(file);
+            System.out.printf("log: %d bytes for %d games%n", size, expected.length);
+            if (size > expected.length * 3L) {
+                System.out.println("FAIL: the log was not compacted");
+                ok = false;
+            }
+            ok &= checkTornTail(file, expected);
+            time(file);
+            ok &= checkCount(file, 2, 3_000_000_000L);
+            ok &= checkCount(file, 1, 70_000);
+            if (!ok) {
+                System.exit(1);
+            }
+            System.out.println("OK: every table matches the games recorded");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Every thread records its own games as fast as it can; returns all their scores, sorted
+    private static int[] recordConcurrently(Path file) throws Exception {
+        int[] scores = new int[THREADS * GAMES_PER_THREAD];
+        long[] nanos = new long[THREADS];
+        ThreadMXBean cpu = ManagementFactory.getThreadMXBean();
+        CountDownLatch go = new CountDownLatch(1);
+        HighScores highScores = HighScores.open(file);
+        try {
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                threads[t] = new Thread(() -> {
+                    GameRandom random = new GameRandom(thread + 1);
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long start = cpu.getCurrentThreadCpuTime();
+                    for (int i = 0; i < GAMES_PER_THREAD; i++) {
+                        // Mostly round scores like the game's, so many games share one
+                        int score = random.nextInt(100) == 0 ? random.nextInt(1_000_000) : random.nextInt(500) * 10;
+                        scores[thread * GAMES_PER_THREAD + i] = score;
+                        highScores.record(score, 1 + score / 1000, thread * (long) GAMES_PER_THREAD + i, false);
+                    }
+                    nanos[thread] = cpu.getCurrentThreadCpuTime() - start;
+                });
+                threads[t].start();
+            }
+            go.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long total = 0;
+            for (long n : nanos) {
+                total += n;
+            }
+            System.out.printf("%d threads recorded %d games: %.0f ns of recording-thread CPU per record()%n",
+                    THREADS, scores.length, total / (double) scores.length);
+        } finally {
+            highScores.close(); // Writes out whatever is still queued
+        }
+        Arrays.sort(scores);
+        if (!check("live", highScores.table(), scores)) {
+            System.exit(1);
+        }
+        return scores;
+    }
+
+    private static boolean check(String name, HighScores.Table table, int[] sorted) {
+        int n = sorted.length;
+        if (table.games() != n) {
+            System.out.printf("%s: FAIL, %d games in the table, %d recorded%n", name, table.games(), n);
+            return false;
+        }
+        if (table.topCount() != Math.min(n, HighScores.TOP)) {
+            System.out.printf("%s: FAIL, top list holds %d%n", name, table.topCount());
+            return false;
+        }
+        for (int rank = 0; rank < table.topCount(); rank++) {
+            if (table.top(rank).score != sorted[n - 1 - rank]) {
+                System.out.printf("%s: FAIL, top %d is %d, should be %d%n", name, rank, table.top(rank).score,
+                        sorted[n - 1 - rank]);
+                return false;
+            }
+        }
+        for (double percent : new double[] {0, 1, 10, 25, 50, 75, 90, 99, 99.9, 100}) {
+            int needed = Math.max(1, (int) Math.ceil(n * percent / 100.0));
+            if (table.scoreAtPercentile(percent) != sorted[needed - 1]) {
+                System.out.printf("%s: FAIL, p%s is %d, should be %d%n", name, percent,
+                        table.scoreAtPercentile(percent), sorted[needed - 1]);
+                return false;
+            }
+        }
+        for (int i = 0; i < n; i += 997) {
+            int score = sorted[i];
+            int below = lowerBound(sorted, score);
+            long higher = n - lowerBound(sorted, score + 1);
+            if (table.rankOf(score) != higher + 1 || table.percentBelow(score) != below * 100.0 / n) {
+                System.out.printf("%s: FAIL, score %d ranked %d (%.3f%% below), should be %d (%.3f%%)%n", name,
+                        score, table.rankOf(score), table.percentBelow(score), higher + 1, below * 100.0 / n);
+                return false;
+            }
+        }
+        System.out.printf("%s: OK, %d games, best %d, p50 %d, p99 %d%n", name, n, table.top(0).score,
+                table.scoreAtPercentile(50), table.scoreAtPercentile(99));
+        return true;
+    }
+
+    // Index of the first score not below score
+    private static int lowerBound(int[] sorted, int score) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // A crash part way through an append leaves half a record; opening must drop just that
+    private static boolean checkTornTail(Path file, int[] sorted) throws IOException {
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 0, 0, 0x7f, 0x7f, 0, 0, 0, 1, 0, 0}));
+        }
+        boolean ok;
+        try (HighScores reopened = HighScores.open(file)) {
+            ok = check("torn tail", reopened.table(), sorted);
+        }
+        if (Files.size(file) != size) {
+            System.out.printf("torn tail: FAIL, file is %d bytes, was %d%n", Files.size(file), size);
+            ok = false;
+        }
+        return ok;
+    }
+
+    // A file holding one score count, written by hand in the given version's layout
+    private static boolean checkCount(Path file, int version, long count) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(32);
+        out.putInt(0x46524853).put((byte) version).put((byte) 2).putInt(1200);
+        if (version == 1) {
+            out.putInt((int) count);
+        } else {
+            out.putLong(count);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 5, out.position() - 5);
+        out.putInt((int) crc.getValue()).flip();
+        Files.delete(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(out);
+        }
+        try (HighScores reopened = HighScores.open(file)) {
+            HighScores.Table table = reopened.table();
+            if (table.games() != count || table.rankOf(1200) != 1) {
+                System.out.printf("version %d count: FAIL, %d games ranked %d, should be %d ranked 1%n", version,
+                        table.games(), table.rankOf(1200), count);
+                return false;
+            }
+        }
+        System.out.printf("version %d count: OK, %d games%n", version, count);
+        return true;
+    }
+
+    private static void time(Path file) throws IOException {
+        try (HighScores highScores = HighScores.open(file)) {
+            HighScores.Table table = highScores.table();
+            GameRandom random = new GameRandom(7);
+            long sink = 0;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    sink += highScores.table().rankOf(random.nextInt(6000));
+                }
+                long rank = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    sink += table.scoreAtPercentile(random.nextInt(10_001) / 100.0);
+                }
+                long percentile = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < QUERIES / HighScores.TOP; i++) {
+                    for (int r = 0; r < table.topCount(); r++) {
+                        sink += table.top(r).score;
+                    }
+                }
+                long top = System.nanoTime() - start;
+                System.out.printf("round %d: rankOf %.0f ns, scoreAtPercentile %.0f ns, whole top %d %.2f us%n",
+                        round, rank / (double) QUERIES, percentile / (double) QUERIES, HighScores.TOP,
+                        top / (double) (QUERIES / HighScores.TOP) / 1e3);
+            }
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+}
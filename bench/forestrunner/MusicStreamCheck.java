@@ -0,0 +1,75 @@
+package forestrunner;
+
+// Streams a track through a small ring and checks that looping is sample-exact (the frame
+// after the last one is the first one again), that the ring never grows, and that a
+// crossfade through the mixer ends with the outgoing stream's reader thread gone.
+// Run with the project root as working directory.
+public class MusicStreamCheck {
+    private static final String TRACK = "sounds/levelup.wav";
+    private static final String OTHER_TRACK = "sounds/hit.wav";
+    private static final int RING_FRAMES = 8 * 1024;
+    private static final int BLOCK = 512;
+
+    public static void main(String[] args) throws InterruptedException {
+        AudioMixer.Sample reference = AudioMixer.load(TRACK);
+        if (reference == null) {
+            System.out.println("Sample files missing");
+            System.exit(2);
+        }
+        boolean ok = true;
+
+        // Read two and a half laps of the track and compare against the fully decoded copy
+        MusicStream stream = new MusicStream(TRACK, RING_FRAMES);
+        short[] block = new short[BLOCK * 2];
+        long total = reference.frames * 5L / 2;
+        long frame = 0;
+        long mismatches = 0;
+        while (frame < total) {
+            int got = stream.read(block, (int) Math.min(BLOCK, total - frame));
+            if (got == 0) {
+                Thread.sleep(1);
+                continue;
+            }
+            for (int i = 0; i < got; i++) {
+                int at = (int) ((frame + i) % reference.frames) * 2;
+                if (block[i * 2] != reference.pcm[at] || block[i * 2 + 1] != reference.pcm[at + 1]) {
+                    mismatches++;
+                }
+            }
+            frame += got;
+        }
+        stream.close();
+        System.out.printf("streamed %d frames (%.1f laps of %d) through a %d-frame ring: %d mismatches%n",
+                frame, (double) frame / reference.frames, reference.frames, stream.capacityFrames(), mismatches);
+        ok &= mismatches == 0 && stream.capacityFrames() == RING_FRAMES;
+
+        // Crossfade through the mixer, paced by what the readers have decoded
+        AudioMixer mixer = new AudioMixer(4, BLOCK, AudioMixer.VoiceStealing.OLDEST);
+        MusicStream first = new MusicStream(TRACK, RING_FRAMES);
+        mixer.playMusic(first, 0.3f, BLOCK);
+        mixBlocks(mixer, first, 20);
+        MusicStream second = new MusicStream(OTHER_TRACK, RING_FRAMES);
+        mixer.playMusic(second, 0.3f, BLOCK * 8);
+        mixBlocks(mixer, second, 20);
+        Thread.sleep(50);
+        boolean firstReaderAlive = Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals("music-" + TRACK));
+        System.out.println("after crossfade: outgoing reader " + (firstReaderAlive ? "still running" : "stopped")
+                + ", underruns " + mixer.musicUnderruns());
+        ok &= !firstReaderAlive;
+        second.close();
+
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void mixBlocks(AudioMixer mixer, MusicStream stream, int blocks) throws InterruptedException {
+        byte[] out = new byte[BLOCK * AudioMixer.FORMAT.getFrameSize()];
+        for (int i = 0; i < blocks; i++) {
+            while (stream.available() < BLOCK) {
+                Thread.sleep(1);
+            }
+            mixer.mix(out, BLOCK);
+        }
+    }
+}
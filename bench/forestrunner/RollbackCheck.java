@@ -0,0 +1,297 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Plays two-player games through Rollback with player 2's input arriving late over a
+// LoopbackLink, and fails (exit code 1) if:
+//  - once the late input is in, the world differs from one that had every input on time
+//  - an event the game with on-time input sends never comes out of the rolled back one, or
+//    game over comes out other than once
+//  - no prediction was ever wrong (the check would then prove nothing)
+//  - a game played to the end never counts as over, or ends differently from on-time input
+//  - restoring a snapshot and playing DEPTH ticks again takes longer than a frame at 60 FPS
+//    at the 99th percentile
+// then prints what a tick costs plain, with snapshots, and when every tick rolls back DEPTH.
+// Run from the project root so the sprites in images/ resolve.
+public class RollbackCheck {
+    private static final int GROUND_Y = 500;
+    private static final int VIEW_WIDTH = 400;
+    private static final int TICKS = 4000;
+    private static final int TIMED_TICKS = 2000;
+    private static final int GAME_OVER_TICKS = 100_000;
+    private static final double FRAME_MS = 1000.0 / 60;
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        for (int delay : new int[] {1, 3, Rollback.DEPTH}) {
+            ok &= checkExact(false, 3, delay);
+            ok &= checkExact(true, 1, delay);
+            ok &= checkGameOver(delay);
+        }
+        System.out.println("Worst case: every tick replays the last " + Rollback.DEPTH + " (frame budget "
+                + String.format("%.2f ms)", FRAME_MS));
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1; // The first round warms the JIT up
+            for (int level : new int[] {1, 5, 10, 20}) {
+                ok &= time("level " + level, false, level, report);
+            }
+            ok &= time("endless", true, 1, report);
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Player 1 runs and hops; player 2 changes what they press every few ticks, so late input
+    // often turns out different from the guess
+    private static int firstMask(int tick) {
+        boolean[] keys = new boolean[256];
+        keys[KeyEvent.VK_RIGHT] = true;
+        keys[KeyEvent.VK_UP] = tick % 40 < 2;
+        return InputRecording.mask(keys);
+    }
+
+    private static int[] secondMasks(long seed, int ticks) {
+        GameRandom random = new GameRandom(seed);
+        int[] masks = new int[ticks];
+        int mask = 0;
+        for (int t = 0; t < ticks; t++) {
+            if (random.nextInt(6) == 0) {
+                mask = random.nextInt(8);
+            }
+            masks[t] = mask;
+        }
+        return masks;
+    }
+
+    private static boolean checkExact(boolean endless, int level, int delay) {
+        Tally expectedEvents = new Tally();
+        Tally events = new Tally();
+        World expected = newWorld(endless, level, expectedEvents);
+        World world = newWorld(endless, level, events);
+        Rollback rollback = new Rollback(world);
+        LoopbackLink link = new LoopbackLink(delay);
+        int[] second = secondMasks(delay * 31L + level, TICKS);
+        boolean[] keys = new boolean[256];
+        boolean[] secondKeys = new boolean[256];
+        for (int t = 0; t < TICKS; t++) {
+            InputRecording.unmask(firstMask(t), keys);
+            InputRecording.unmask(second[t], secondKeys);
+            expected.tick(keys, secondKeys);
+
+            rollback.confirm(0, t, firstMask(t));
+            link.send(rollback, 1, second[t]);
+            rollback.advance();
+        }
+        // What is still on the link arrives, as if the game had gone on
+        link.flush(rollback, 1);
+        rollback.catchUp();
+
+        String name = String.format("%s, delay %d", endless ? "endless" : "level " + level, delay);
+        if (!rollback.settled() || !Arrays.equals(state(expected), state(world))) {
+            System.out.printf("%s: FAIL, the rolled back game differs from the one with on-time input%n", name);
+            return false;
+        }
+        if (rollback.rollbacks() == 0) {
+            System.out.printf("%s: FAIL, no late input ever changed the past%n", name);
+            return false;
+        }
+        String missing = events.missing(expectedEvents);
+        if (missing != null) {
+            System.out.printf("%s: FAIL, %s%n", name, missing);
+            return false;
+        }
+        System.out.printf("%s: OK after %d ticks, %d rollbacks, score %d, level %d, %d events (%d on time)%n", name,
+                TICKS, rollback.rollbacks(), world.score, world.level, events.total(), expectedEvents.total());
+        return true;
+    }
+
+    // Both players hold RIGHT until they run out of lives, ticked the way ForestRunner does:
+    // nothing is flushed by hand, so the game has to end and settle on its own
+    private static boolean checkGameOver(int delay) {
+        Tally events = new Tally();
+        World expected = newWorld(false, 1);
+        World world = newWorld(false, 1, events);
+        Rollback rollback = new Rollback(world);
+        LoopbackLink link = new LoopbackLink(delay);
+        boolean[] keys = new boolean[256];
+        keys[KeyEvent.VK_RIGHT] = true;
+        int mask = InputRecording.mask(keys);
+        String name = String.format("game over, delay %d", delay);
+        int t = 0;
+        while (!(world.gameOver && rollback.settled())) {
+            if (t == GAME_OVER_TICKS) {
+                System.out.printf("%s: FAIL, not over after %d ticks (world over %b, settled %b, lives %d/%d)%n",
+                        name, t, world.gameOver, rollback.settled(), world.players[0].lives,
+                        world.players[1].lives);
+                return false;
+            }
+            expected.tick(keys, keys);
+            // As ForestRunner.tickTwoPlayers()
+            rollback.confirm(0, rollback.tick(), mask);
+            link.send(rollback, 1, mask);
+            rollback.advance();
+            if (world.gameOver) {
+                link.flush(rollback, 1);
+                rollback.catchUp();
+            }
+            t++;
+        }
+        if (!expected.gameOver || !Arrays.equals(state(expected), state(world))) {
+            System.out.printf("%s: FAIL, the game ended differently from the one with on-time input%n", name);
+            return false;
+        }
+        if (events.counts[Tally.GAME_OVER] != 1) {
+            System.out.printf("%s: FAIL, game over sent %d times%n", name, events.counts[Tally.GAME_OVER]);
+            return false;
+        }
+        System.out.printf("%s: OK, over and settled after %d ticks, score %d%n", name, t, world.score);
+        return true;
+    }
+
+    // Player 2 flips their keys every tick and arrives DEPTH ticks late, so every tick has to
+    // restore and replay DEPTH ticks: the most a frame ever asks of Rollback
+    private static boolean time(String name, boolean endless, int level, boolean report) {
+        World plain = newWorld(endless, level);
+        World saved = newWorld(endless, level);
+        World worst = newWorld(endless, level);
+        Rollback onTime = new Rollback(saved);
+        Rollback late = new Rollback(worst);
+        LoopbackLink link = new LoopbackLink(Rollback.DEPTH);
+        boolean[] keys = new boolean[256];
+        boolean[] secondKeys = new boolean[256];
+        long[] plainNanos = new long[TIMED_TICKS];
+        long[] savedNanos = new long[TIMED_TICKS];
+        long[] worstNanos = new long[TIMED_TICKS];
+        for (int t = 0; t < TIMED_TICKS; t++) {
+            int first = firstMask(t);
+            int second = t % 2 == 0 ? 0b101 : 0b010;
+            InputRecording.unmask(first, keys);
+            InputRecording.unmask(second, secondKeys);
+            long start = System.nanoTime();
+            plain.tick(keys, secondKeys);
+            plainNanos[t] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            onTime.confirm(0, t, first);
+            onTime.confirm(1, t, second);
+            onTime.advance();
+            savedNanos[t] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            late.confirm(0, t, first);
+            link.send(late, 1, second);
+            late.advance();
+            worstNanos[t] = System.nanoTime() - start;
+            keepAlive(plain);
+            keepAlive(saved);
+            keepAlive(worst);
+        }
+        ByteBuffer state = ByteBuffer.allocate(1 << 20);
+        worst.writeTo(state);
+        Arrays.sort(plainNanos);
+        Arrays.sort(savedNanos);
+        Arrays.sort(worstNanos);
+        double worstP99 = percentile(worstNanos, 99);
+        boolean ok = worstP99 <= FRAME_MS;
+        if (!report) {
+            return true;
+        }
+        System.out.printf("  %-9s %4d entities %6d B state | tick p50 %.3f ms | with snapshot p50 %.3f ms"
+                        + " | rollback p50 %.3f p99 %.3f max %.3f ms, %.0f%% of a frame at p99 %s%n",
+                name, worst.entityCount(), state.position(), percentile(plainNanos, 50),
+                percentile(savedNanos, 50), percentile(worstNanos, 50), worstP99,
+                worstNanos[TIMED_TICKS - 1] / 1e6, worstP99 * 100 / FRAME_MS, ok ? "OK" : "FAIL");
+        return ok;
+    }
+
+    // Timing needs games that last; the bench players do not die
+    private static void keepAlive(World world) {
+        for (Player player : world.players) {
+            player.lives = 3;
+        }
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1e6;
+    }
+
+    private static World newWorld(boolean endless, int level) {
+        return newWorld(endless, level, WorldEvents.NONE);
+    }
+
+    private static World newWorld(boolean endless, int level, WorldEvents events) {
+        World world = new World(GROUND_Y, VIEW_WIDTH, endless, events, 2);
+        world.reset(77, level);
+        return world;
+    }
+
+    // Counts each kind of event; a level up counts once per level reached
+    private static final class Tally implements WorldEvents {
+        static final int GAME_OVER = 4;
+        private static final String[] NAMES = {"fruit", "power-up", "obstacle hit", "animal hit", "game over",
+                "jump"};
+        final int[] counts = new int[NAMES.length];
+        final int[] levels = new int[1000];
+
+        @Override
+        public void fruitCollected() {
+            counts[0]++;
+        }
+
+        @Override
+        public void powerUpCollected() {
+            counts[1]++;
+        }
+
+        @Override
+        public void playerHit(World.Hazard hazard) {
+            counts[hazard == World.Hazard.OBSTACLE ? 2 : 3]++;
+        }
+
+        @Override
+        public void levelUp(int level) {
+            levels[level]++;
+        }
+
+        @Override
+        public void gameOver() {
+            counts[GAME_OVER]++;
+        }
+
+        @Override
+        public void jumped() {
+            counts[5]++;
+        }
+
+        long total() {
+            long total = Arrays.stream(counts).sum();
+            return total + Arrays.stream(levels).sum();
+        }
+
+        // What expected sent more often than this did, or null when nothing
+        String missing(Tally expected) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] < expected.counts[i]) {
+                    return String.format("%d %s events sent, %d with on-time input", counts[i], NAMES[i],
+                            expected.counts[i]);
+                }
+            }
+            for (int level = 0; level < levels.length; level++) {
+                if (levels[level] < expected.levels[level]) {
+                    return String.format("level %d sent %d times, %d with on-time input", level, levels[level],
+                            expected.levels[level]);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static byte[] state(World world) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        world.writeTo(buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
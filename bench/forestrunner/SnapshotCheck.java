@@ -0,0 +1,202 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Saves and restores whole games through WorldSnapshot and fails (exit code 1) if:
+//  - a restored game, fed the same keys, ends up anywhere other than the original
+//  - an endless two-player game saved while chunks wait for room resumes any differently
+//  - a torn save (its payload damaged after the fact) is not skipped for the previous one
+//  - a game that outgrows the file cannot be saved and read back
+// then times save and restore at increasing levels.
+// Run from the project root so the sprites in images/ resolve.
+public class SnapshotCheck {
+    private static final int GROUND_Y = 500;
+    private static final int VIEW_WIDTH = 800;
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("snapshot", ".bin");
+        Files.delete(file);
+        try {
+            boolean ok = checkResume(file, false, 3);
+            ok &= checkResume(file, true, 1);
+            ok &= checkWaitingChunks(file);
+            ok &= checkTornSave(file);
+            time(file);
+            if (!ok) {
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Plays 3000 ticks, saves, plays 3000 more; a restored copy must play those the same way
+    private static boolean checkResume(Path file, boolean endless, int level) throws IOException {
+        Files.deleteIfExists(file);
+        World original = new World(GROUND_Y, VIEW_WIDTH, endless, WorldEvents.NONE);
+        original.reset(99, level);
+        boolean[] keys = new boolean[256];
+        int tick = 0;
+        for (; tick < 3000 && !original.gameOver; tick++) {
+            script(keys, tick);
+            original.tick(keys);
+        }
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            snapshot.save(original);
+        }
+
+        World restored = new World(GROUND_Y, VIEW_WIDTH, endless, WorldEvents.NONE);
+        restored.reset(1);
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            snapshot.restore(restored);
+        }
+        String name = endless ? "endless" : "level " + level;
+        for (int end = tick + 3000; tick < end; tick++) {
+            if (checksum(original) != checksum(restored)) {
+                System.out.println(name + ": FAIL, restored game differs at tick " + tick);
+                return false;
+            }
+            script(keys, tick);
+            original.tick(keys);
+            restored.tick(keys);
+        }
+        boolean same = checksum(original) == checksum(restored);
+        System.out.printf("%s: %s, resumed at tick 3000 and matched for 3000 more (score %d, level %d)%n",
+                name, same ? "OK" : "FAIL", restored.score, restored.level);
+        return same;
+    }
+
+    // Player 2 stands still while player 1 runs far enough ahead for the level streamer to run
+    // out of room, so chunks are waiting when the game is saved; then both run
+    private static boolean checkWaitingChunks(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        World original = new World(GROUND_Y, VIEW_WIDTH, true, WorldEvents.NONE, 2);
+        original.reset(7);
+        boolean[] keys = new boolean[256];
+        boolean[] standing = new boolean[256];
+        int tick = 0;
+        for (; tick < 20_000; tick++) {
+            script(keys, tick);
+            original.tick(keys, standing);
+            keepAlive(original);
+        }
+        int waiting = original.streamer.waitingChunks();
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            snapshot.save(original);
+        }
+
+        World restored = new World(GROUND_Y, VIEW_WIDTH, true, WorldEvents.NONE, 2);
+        restored.reset(1);
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            snapshot.restore(restored);
+        }
+        for (int end = tick + 20_000; tick < end; tick++) {
+            if (checksum(original) != checksum(restored)) {
+                System.out.println("waiting chunks: FAIL, restored game differs at tick " + tick);
+                return false;
+            }
+            script(keys, tick);
+            original.tick(keys, keys);
+            restored.tick(keys, keys);
+            keepAlive(original);
+            keepAlive(restored);
+        }
+        boolean ok = waiting > 0 && checksum(original) == checksum(restored);
+        System.out.printf("waiting chunks: %s, saved with %d chunks waiting and matched for 20000 more ticks"
+                + " (%d entities)%n", ok ? "OK" : "FAIL", waiting, restored.entityCount());
+        return ok;
+    }
+
+    private static boolean checkTornSave(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        World world = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+        world.reset(5, 2);
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            snapshot.save(world);
+            world.reset(5, 800); // Far bigger than the first slot: the file has to grow
+            snapshot.save(world);
+        }
+        long size = Files.size(file);
+        boolean grown = size > 2 * 64 * 1024 + 9;
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            World check = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+            check.reset(1);
+            snapshot.restore(check);
+            grown &= check.level == 800 && check.entityCount() == world.entityCount();
+        }
+
+        // Damage the end of the newest save, as if the game died while writing it
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            long slotBytes = (size - 9) / 2;
+            raw.seek(9 + slotBytes + 16 + 100);
+            raw.writeInt(0x5A5A5A5A);
+        }
+        boolean fellBack;
+        try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+            World check = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+            check.reset(1);
+            fellBack = snapshot.restore(check) && check.level == 2;
+        }
+        boolean ok = grown && fellBack;
+        System.out.printf("torn save: %s, grew to %d bytes in place %b, fell back to the previous save %b%n",
+                ok ? "OK" : "FAIL", size, grown, fellBack);
+        return ok;
+    }
+
+    private static void time(Path file) throws IOException {
+        System.out.printf("%6s %9s %9s %10s %12s%n", "level", "entities", "bytes", "save us", "restore us");
+        for (int level : new int[]{1, 10, 100, 1000}) {
+            Files.deleteIfExists(file);
+            World world = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+            world.reset(level, level);
+            World restored = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+            restored.reset(1);
+            try (WorldSnapshot snapshot = WorldSnapshot.open(file)) {
+                double save = Double.MAX_VALUE;
+                double restore = Double.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    snapshot.save(world);
+                    save = Math.min(save, (System.nanoTime() - start) / 1e3);
+                    start = System.nanoTime();
+                    snapshot.restore(restored);
+                    restore = Math.min(restore, (System.nanoTime() - start) / 1e3);
+                }
+                System.out.printf("%6d %9d %9d %10.1f %12.1f%n", level, world.entityCount(), snapshot.savedBytes(),
+                        save, restore);
+            }
+        }
+    }
+
+    private static long checksum(World world) {
+        long sum = world.score * 31L + world.level;
+        for (Player player : world.players) {
+            sum = ((sum * 31 + player.x) * 31 + player.y) * 31 + player.lives;
+        }
+        for (int i = 0; i < world.animals.size(); i++) {
+            sum = sum * 31 + world.animals.get(i).x;
+        }
+        for (int i = 0; i < world.powerUps.size(); i++) {
+            sum = sum * 31 + world.powerUps.x[i];
+        }
+        return sum * 31 + world.fruits.size();
+    }
+
+    // Runs must last: nobody in the check loses their last life
+    private static void keepAlive(World world) {
+        for (Player player : world.players) {
+            player.lives = 3;
+        }
+    }
+
+    // Hold RIGHT, tap UP every 40 ticks
+    private static void script(boolean[] keys, int tick) {
+        keys[KeyEvent.VK_RIGHT] = true;
+        keys[KeyEvent.VK_UP] = tick % 40 < 2;
+    }
+}
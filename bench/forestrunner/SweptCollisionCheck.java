@@ -0,0 +1,142 @@
+package forestrunner;
+
+// Checks the swept narrow phase and fails (exit code 1) if:
+//  - a box that overlaps the mover anywhere along the tick (found by sampling 1000 sub-steps)
+//    or at the end of it (what the old discrete test saw) is not reported by EntityStore.sweep,
+//    or is reported later than the first sampled overlap
+//  - a fast animal running through the player, or the player dropping through a thin obstacle,
+//    is missed; at these speeds the discrete end-of-tick test sees nothing
+//  - World resolves a tick's contacts out of order: a shield reached before an obstacle must
+//    protect from it, one reached after must not
+// Run from the project root so the sprites in images/ resolve.
+public class SweptCollisionCheck {
+    private static final int GROUND_Y = 500;
+    private static final int CASES = 100_000;
+    private static final int SAMPLES = 1000;
+
+    public static void main(String[] args) {
+        boolean ok = checkAgainstSampling();
+        ok &= checkTunnelling();
+        ok &= checkOrdering();
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean checkAgainstSampling() {
+        GameRandom random = new GameRandom(21);
+        EntityStore<Entity> store = new EntityStore<>();
+        int slot = store.slotOf(store.add(new Obstacle().reset(0, 0), 0));
+        int missed = 0;
+        int late = 0;
+        int hits = 0;
+        int discreteHits = 0;
+        for (int n = 0; n < CASES; n++) {
+            store.x[slot] = random.nextInt(400);
+            store.y[slot] = random.nextInt(400);
+            store.w[slot] = 1 + random.nextInt(60);
+            store.h[slot] = 1 + random.nextInt(60);
+            int slotDx = random.nextInt(401) - 200;
+            int x = random.nextInt(400);
+            int y = random.nextInt(400);
+            int width = 1 + random.nextInt(80);
+            int height = 1 + random.nextInt(80);
+            int dx = random.nextInt(401) - 200;
+            int dy = random.nextInt(401) - 200;
+
+            double time = store.sweep(slot, slotDx, x, y, width, height, dx, dy);
+            if (time != EntityStore.MISS) {
+                hits++;
+            }
+            boolean endOverlap = store.intersects(slot, x + dx, y + dy, width, height);
+            if (endOverlap) {
+                discreteHits++;
+            }
+            double firstSampled = firstOverlap(store, slot, slotDx, x, y, width, height, dx, dy);
+            if ((endOverlap || firstSampled >= 0) && time == EntityStore.MISS) {
+                missed++;
+            } else if (firstSampled >= 0 && time > firstSampled + 1e-9) {
+                late++;
+            }
+        }
+        boolean ok = missed == 0 && late == 0;
+        System.out.printf("sampling: %s, %d random cases, %d swept hits, %d discrete hits at the end of the tick%n",
+                ok ? "OK" : "FAIL (" + missed + " missed, " + late + " reported late)", CASES, hits, discreteHits);
+        return ok;
+    }
+
+    // Earliest sampled fraction of the tick at which the boxes overlap, or -1
+    private static double firstOverlap(EntityStore<Entity> store, int slot, int slotDx,
+                                       int x, int y, int width, int height, int dx, int dy) {
+        for (int k = 0; k <= SAMPLES; k++) {
+            double t = k / (double) SAMPLES;
+            double slotX = store.x[slot] - slotDx + slotDx * t;
+            double moverX = x + dx * t;
+            double moverY = y + dy * t;
+            if (moverX < slotX + store.w[slot] && slotX < moverX + width
+                    && moverY < store.y[slot] + store.h[slot] && store.y[slot] < moverY + height) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean checkTunnelling() {
+        EntityStore<Entity> store = new EntityStore<>();
+        int playerX = 1000;
+        int playerY = GROUND_Y - 130;
+        int playerWidth = 75;
+        int playerHeight = 130;
+
+        // An animal at level 1000 walks 336 px a tick: from in front of the player to behind it
+        int animal = store.slotOf(store.add(new WildAnimal().reset(playerX - 200, GROUND_Y - 40, 334, new GameRandom(1)), 0));
+        int animalDx = -336;
+        boolean animalDiscrete = store.intersects(animal, playerX, playerY, playerWidth, playerHeight);
+        boolean animalSwept = store.sweep(animal, animalDx, playerX, playerY, playerWidth, playerHeight, 0, 0) != EntityStore.MISS;
+
+        // A player falling 60 px a tick past an obstacle only 40 px tall
+        int obstacle = store.slotOf(store.add(new Obstacle().reset(2000, GROUND_Y - 40), 0));
+        int fallFrom = GROUND_Y - 40 - playerHeight - 5;
+        int fallDy = playerHeight + 40 + 10;
+        boolean fallDiscrete = store.intersects(obstacle, 2000, fallFrom + fallDy, playerWidth, playerHeight);
+        boolean fallSwept = store.sweep(obstacle, 0, 2000, fallFrom, playerWidth, playerHeight, 0, fallDy) != EntityStore.MISS;
+
+        boolean ok = animalSwept && fallSwept && !animalDiscrete && !fallDiscrete;
+        System.out.printf("tunnelling: %s, fast animal discrete %b swept %b, falling player discrete %b swept %b%n",
+                ok ? "OK" : "FAIL", animalDiscrete, animalSwept, fallDiscrete, fallSwept);
+        return ok;
+    }
+
+    private static boolean checkOrdering() {
+        boolean shieldFirst = damagedWith(true);
+        boolean shieldLast = damagedWith(false);
+        boolean ok = !shieldFirst && shieldLast;
+        System.out.printf("ordering: %s, damage with the shield reached first %b, reached last %b%n",
+                ok ? "OK" : "FAIL", shieldFirst, shieldLast);
+        return ok;
+    }
+
+    // One tick of the player running 100 px right through a shield power-up and an obstacle;
+    // both overlap the player at the end of the tick, only the order they were reached differs
+    private static boolean damagedWith(boolean shieldFirst) {
+        World world = new World(GROUND_Y, 800, false, WorldEvents.NONE);
+        world.reset(1);
+        world.fruits.clear();
+        world.animals.clear();
+        world.powerUps.clear();
+        world.obstacles.clear();
+        Player player = world.player;
+        player.prevX = 1000;
+        player.x = 1100;
+        player.y = GROUND_Y - player.height;
+        player.prevY = player.y;
+        int near = player.prevX + player.width + 10;
+        int far = player.prevX + player.width + 60;
+        world.powerUps.add(new PowerUp().reset(shieldFirst ? near : far, GROUND_Y - 40, new GameRandom(1)), 3);
+        world.obstacles.add(new Obstacle().reset(shieldFirst ? far : near, GROUND_Y - 40), 0);
+
+        int lives = player.lives;
+        world.checkCollisions();
+        return player.lives < lives;
+    }
+}
@@ -0,0 +1,46 @@
+package forestrunner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of the batch simulator: one batch of bot games on 1 to 8 worker threads. Games
+// share nothing while they run, so the time should fall with the thread count until the cores
+// run out; counts above the core count show the cost of oversubscribing.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchScalingBenchmark {
+    private static final int GAMES = 2_000;
+    private static final long SEED = 1;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private BatchSimulator batch;
+
+    // A batch runs its games once, so each call gets a new one
+    @Setup(Level.Invocation)
+    public void setUp() {
+        batch = new BatchSimulator(GAMES, "runner", SEED, 36_000, false);
+    }
+
+    @Benchmark
+    public long run() {
+        return batch.run(threads);
+    }
+}
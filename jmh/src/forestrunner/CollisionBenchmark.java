@@ -0,0 +1,92 @@
+package forestrunner;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One player-box collision query at increasing levels: a linear scan over every entity versus
+// the EntityStore's grid broad phase. Levels are laid out with the same spacing as generateLevel().
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int GROUND_Y = 500;
+    private static final int PLAYER_WIDTH = 64;
+    private static final int PLAYER_HEIGHT = 64;
+    private static final int PLAYER_Y = GROUND_Y - PLAYER_HEIGHT;
+
+    @Param({"1", "10", "100", "1000"})
+    public int level;
+
+    private final ArrayList<Entity> entities = new ArrayList<>();
+    private final EntityStore<Entity> store = new EntityStore<>();
+    private final int[] playerX = new int[1024];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameRandom random = new GameRandom(level);
+        for (int i = 0; i < 10 + level * 3; i++) {
+            entities.add(new Fruit().reset(200 + i * 120 + random.nextInt(80), GROUND_Y - 30 - random.nextInt(50), random));
+        }
+        for (int i = 0; i < 3 + level * 2; i++) {
+            entities.add(new WildAnimal().reset(300 + i * 250 + random.nextInt(100), GROUND_Y - 40, 1 + (level - 1) / 3, random));
+        }
+        for (int i = 0; i < level; i++) {
+            entities.add(new Obstacle().reset(500 + i * 200 + random.nextInt(100), GROUND_Y - 40));
+        }
+        for (Entity entity : entities) {
+            store.add(entity, 0);
+        }
+
+        int levelWidth = 200 + (10 + level * 3) * 120;
+        for (int i = 0; i < playerX.length; i++) {
+            playerX[i] = random.nextInt(levelWidth);
+        }
+    }
+
+    @Benchmark
+    public int linear() {
+        int x = nextX();
+        int hits = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i).intersects(x, PLAYER_Y, PLAYER_WIDTH, PLAYER_HEIGHT)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int grid() {
+        int x = nextX();
+        int hits = 0;
+        for (int c = store.firstCell(x); c <= store.lastCell(x + PLAYER_WIDTH); c++) {
+            for (int i = 0; i < store.cellCount(c); i++) {
+                if (store.intersects(store.slotOf(store.cellId(c, i)), x, PLAYER_Y, PLAYER_WIDTH, PLAYER_HEIGHT)) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private int nextX() {
+        return playerX[query++ & (playerX.length - 1)];
+    }
+}
@@ -0,0 +1,96 @@
+package forestrunner;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Object-list layout (ArrayList<Fruit>, remove(i)) versus EntityStore (parallel int arrays,
+// swap-remove) at 10k to 1M entities. A scan is a full overlap test against the player box; a
+// churn removes and respawns 1% of the entities, like pickups over a long level.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityStoreBenchmark {
+    private static final int GROUND_Y = 500;
+
+    @Param({"10000", "100000", "1000000"})
+    public int count;
+
+    private ArrayList<Fruit> list;
+    private EntityStore<Fruit> store;
+    private int[] victims;
+    private int playerX;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameRandom random = new GameRandom(count);
+        list = new ArrayList<>(count);
+        store = new EntityStore<>(count);
+        for (int i = 0; i < count; i++) {
+            Fruit fruit = new Fruit().reset(i * 40 + random.nextInt(30), GROUND_Y - 30 - random.nextInt(50), random);
+            list.add(fruit);
+            store.add(fruit, 0);
+        }
+
+        int churn = Math.max(1, count / 100);
+        victims = new int[churn];
+        for (int i = 0; i < churn; i++) {
+            victims[i] = random.nextInt(count - churn);
+        }
+        playerX = count * 20;
+    }
+
+    @Benchmark
+    public int scanList() {
+        int hits = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).intersects(playerX, GROUND_Y - 64, 64, 64)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int scanStore() {
+        int hits = 0;
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.intersects(slot, playerX, GROUND_Y - 64, 64, 64)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    // The entity count stays the same, so every call does the same amount of work
+    @Benchmark
+    public void churnList() {
+        for (int victim : victims) {
+            list.add(list.remove(victim));
+        }
+    }
+
+    @Benchmark
+    public void churnStore() {
+        for (int victim : victims) {
+            Fruit fruit = store.get(victim);
+            store.removeAt(victim);
+            store.add(fruit, 0);
+        }
+    }
+}
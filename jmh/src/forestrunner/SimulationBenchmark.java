@@ -0,0 +1,78 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Headless cost of the simulation core at increasing levels: how long World takes to build a
+// level, a full tick with a scripted player (run right, jump now and then; clearing a level
+// moves on to the next) and collision detection on its own. No window, no sound.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    private static final int GROUND_Y = 500;
+    private static final int VIEW_WIDTH = 800;
+    private static final int RUN_TICKS = 20_000;
+
+    @Param({"1", "10", "100", "1000"})
+    public int level;
+
+    private World world;
+    private final boolean[] keys = new boolean[256];
+    private int tick;
+
+    // Every benchmark starts after a scripted run, with the player somewhere along the level
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new World(GROUND_Y, VIEW_WIDTH, false, WorldEvents.NONE);
+        world.reset(level, level);
+        for (int t = 0; t < RUN_TICKS; t++) {
+            step();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int generateLevel() {
+        world.generateLevel();
+        return world.entityCount();
+    }
+
+    @Benchmark
+    public int tick() {
+        step();
+        return world.score;
+    }
+
+    // Leaves the world as it is, so every call does the same work
+    @Benchmark
+    public int findContacts() {
+        return world.findContacts(world.player);
+    }
+
+    // Hold RIGHT, tap UP every 40 ticks
+    private void step() {
+        keys[KeyEvent.VK_RIGHT] = true;
+        keys[KeyEvent.VK_UP] = tick++ % 40 < 2;
+        world.tick(keys);
+        if (world.gameOver) {
+            world.reset(level, level);
+        }
+    }
+}
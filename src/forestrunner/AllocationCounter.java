@@ -0,0 +1,26 @@
+package forestrunner;
+
+import java.lang.management.ManagementFactory;
+
+// Bytes allocated by the calling thread so far, or -1 when the JVM cannot tell us
+final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationCounter() {}
+
+    static long currentThreadBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package forestrunner;
+
+// Playback state of one entity: which AnimationClip and how far into it. Time advances with the
+// simulation in fixed ticks (World.TICK_MICROS), so animation speed does not depend on the frame
+// rate and a replay animates exactly like the original game. Holds no images and never allocates.
+final class Animation {
+    private AnimationClip clip;
+    private long elapsedMicros;
+
+    Animation(AnimationClip clip) {
+        this.clip = clip;
+    }
+
+    // Switches to clip from its first frame; asking for the clip already playing keeps it going
+    void play(AnimationClip clip) {
+        if (this.clip != clip) {
+            this.clip = clip;
+            elapsedMicros = 0;
+        }
+    }
+
+    void restart(AnimationClip clip) {
+        this.clip = clip;
+        elapsedMicros = 0;
+    }
+
+    void advance(long micros) {
+        elapsedMicros += micros;
+        if (clip.loop) {
+            elapsedMicros %= clip.durationMicros();
+        }
+    }
+
+    AnimationClip clip() {
+        return clip;
+    }
+
+    long elapsedMicros() {
+        return elapsedMicros;
+    }
+
+    // Puts the playback back where a snapshot found it
+    void restore(AnimationClip clip, long elapsedMicros) {
+        this.clip = clip;
+        this.elapsedMicros = elapsedMicros;
+    }
+
+    // Index into the clip; a clip that does not loop holds its last frame
+    int step() {
+        return (int) Math.min(elapsedMicros / clip.frameMicros, clip.length() - 1);
+    }
+
+    int frame() {
+        return clip.frame(step());
+    }
+
+    int offsetY() {
+        return clip.offsetY(step());
+    }
+
+    boolean isFinished() {
+        return !clip.loop && elapsedMicros >= clip.durationMicros();
+    }
+}
@@ -0,0 +1,51 @@
+package forestrunner;
+
+// A named sequence of SpriteSheet frames, each shown for a fixed time. Clips are immutable and
+// shared by every entity of a type; what differs per entity is its Animation. A sheet that has
+// only one pose can still move: every step can carry a vertical offset (a walk bob, a recoil).
+final class AnimationClip {
+    final String name;
+    final int frameMicros;
+    final boolean loop;
+    private final int[] frames;
+    private final int[] offsetsY;
+
+    private AnimationClip(String name, int frameMillis, boolean loop, int[] frames, int[] offsetsY) {
+        if (frames.length == 0 || frameMillis <= 0) {
+            throw new IllegalArgumentException("clip " + name + " needs frames and a positive frame time");
+        }
+        if (offsetsY.length != frames.length) {
+            throw new IllegalArgumentException("clip " + name + " needs one offset per frame");
+        }
+        this.name = name;
+        this.frameMicros = frameMillis * 1000;
+        this.loop = loop;
+        this.frames = frames;
+        this.offsetsY = offsetsY;
+    }
+
+    static AnimationClip of(String name, int frameMillis, boolean loop, int... frames) {
+        return new AnimationClip(name, frameMillis, loop, frames, new int[frames.length]);
+    }
+
+    // Same frames, drawn offsetsY[step] pixels lower (negative is up)
+    AnimationClip withOffsetsY(int... offsetsY) {
+        return new AnimationClip(name, frameMicros / 1000, loop, frames, offsetsY);
+    }
+
+    int length() {
+        return frames.length;
+    }
+
+    long durationMicros() {
+        return (long) frameMicros * frames.length;
+    }
+
+    int frame(int step) {
+        return frames[step];
+    }
+
+    int offsetY(int step) {
+        return offsetsY[step];
+    }
+}
@@ -0,0 +1,70 @@
+package forestrunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Loads images and sounds on a small worker pool so the window can show up immediately.
+// Required assets gate the start of the game, optional ones keep streaming in afterwards.
+final class AssetLoader {
+    private final ExecutorService pool;
+    private final AtomicInteger requiredTotal = new AtomicInteger();
+    private final AtomicInteger requiredDone = new AtomicInteger();
+    private final AtomicInteger optionalTotal = new AtomicInteger();
+    private final AtomicInteger optionalDone = new AtomicInteger();
+    private final long startTime = System.nanoTime();
+
+    AssetLoader() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    void submitImage(String path, boolean required) {
+        submit(path, required, () -> Assets.sprite(path));
+    }
+
+    void submit(String name, boolean required, Runnable task) {
+        (required ? requiredTotal : optionalTotal).incrementAndGet();
+        pool.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println("Could not load " + name + ": " + e.getMessage());
+            } finally {
+                int done = (required ? requiredDone : optionalDone).incrementAndGet();
+                if (required && done == requiredTotal.get()) {
+                    System.out.printf("Required assets ready in %.1f ms%n", (System.nanoTime() - startTime) / 1_000_000.0);
+                }
+            }
+        });
+    }
+
+    // No more submissions; queued loads still finish and the worker threads exit afterwards
+    void finishSubmitting() {
+        pool.shutdown();
+    }
+
+    boolean isRequiredReady() {
+        return requiredDone.get() >= requiredTotal.get();
+    }
+
+    boolean isFullyLoaded() {
+        return isRequiredReady() && optionalDone.get() >= optionalTotal.get();
+    }
+
+    float requiredProgress() {
+        int total = requiredTotal.get();
+        return total == 0 ? 1.0f : (float) requiredDone.get() / total;
+    }
+
+    float overallProgress() {
+        int total = requiredTotal.get() + optionalTotal.get();
+        return total == 0 ? 1.0f : (float) (requiredDone.get() + optionalDone.get()) / total;
+    }
+}
@@ -0,0 +1,91 @@
+package forestrunner;
+
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Central image registry. Each path is decoded at most once, missing files included,
+// so entity constructors can ask for their sprite as often as they like. The full-size pixels
+// are only needed while SpriteAtlas builds its scaled copies: releaseImages() drops them once
+// the game is set up, and an image asked for after that is decoded again.
+final class Assets {
+    private static final Map<String, Sprite> sprites = new ConcurrentHashMap<>();
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    private Assets() {}
+
+    static Sprite sprite(String path) {
+        return sprites.computeIfAbsent(path, Assets::decode);
+    }
+
+    // The decoded pixels at full size, or null when the file is missing
+    static BufferedImage image(String path) {
+        if (!sprite(path).isLoaded()) {
+            return null;
+        }
+        return images.computeIfAbsent(path, Assets::read);
+    }
+
+    // Lets go of every full-size image; SpriteAtlas keeps the copies it has built
+    static void releaseImages() {
+        images.clear();
+    }
+
+    private static Sprite decode(String path) {
+        FlightEvents.AssetLoad event = new FlightEvents.AssetLoad();
+        event.begin();
+        long start = System.nanoTime();
+        BufferedImage image = read(path);
+        Sprite sprite = new Sprite(path, image, System.nanoTime() - start);
+        if (image != null) {
+            images.put(path, image);
+        }
+        event.finish(path, "image", sprite.isLoaded() ? sprite.bytes : -1);
+        return sprite;
+    }
+
+    private static BufferedImage read(String path) {
+        try {
+            return ImageIO.read(new File(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static long totalBytes() {
+        long total = 0;
+        for (Sprite sprite : sprites.values()) {
+            total += sprite.bytes;
+        }
+        return total;
+    }
+
+    // What the full-size images still held cost
+    static long residentBytes() {
+        long total = 0;
+        for (String path : images.keySet()) {
+            total += sprites.get(path).bytes;
+        }
+        return total;
+    }
+
+    static void printReport() {
+        ArrayList<Sprite> loaded = new ArrayList<>(sprites.values());
+        loaded.sort((a, b) -> a.path.compareTo(b.path));
+
+        System.out.println("Assets loaded:");
+        for (Sprite sprite : loaded) {
+            if (sprite.isLoaded()) {
+                System.out.printf("  %-24s %4dx%-4d %8.2f ms %10d bytes%n", sprite.path,
+                        sprite.width(), sprite.height(), sprite.decodeNanos / 1_000_000.0, sprite.bytes);
+            } else {
+                System.out.printf("  %-24s missing   %8.2f ms%n", sprite.path, sprite.decodeNanos / 1_000_000.0);
+            }
+        }
+        System.out.println("  total: " + totalBytes() + " bytes decoded, " + residentBytes() + " still held");
+    }
+}
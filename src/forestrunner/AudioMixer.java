@@ -0,0 +1,465 @@
+package forestrunner;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Software mixer: every sound is decoded once into 16-bit stereo PCM held in memory, and a
+// fixed set of voices is summed into a single SourceDataLine by a dedicated audio thread.
+// Game code never touches the line; play/stop requests go through a bounded lock-free queue
+// that any thread can post to without blocking or allocating. The line buffer size (in frames)
+// sets the latency, and when every voice is busy the stealing policy decides what gives way.
+// Music does not use a voice: it is pulled from a MusicStream, and switching tracks crossfades
+// the outgoing stream into the incoming one over a requested number of frames.
+final class AudioMixer {
+    static final float SAMPLE_RATE = 44100f;
+    static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+
+    enum VoiceStealing {
+        OLDEST,   // cut off the sound that has been playing longest
+        QUIETEST, // cut off the sound with the lowest gain
+        NONE      // drop the new sound instead
+    }
+
+    // Decoded PCM, interleaved left/right
+    static final class Sample {
+        final String name;
+        final short[] pcm;
+        final int frames;
+
+        Sample(String name, short[] pcm) {
+            this.name = name;
+            this.pcm = pcm;
+            this.frames = pcm.length / 2;
+        }
+    }
+
+    private static final int CMD_PLAY = 1;
+    private static final int CMD_STOP = 2;
+    private static final int CMD_STOP_ALL = 3;
+    private static final int CMD_MUSIC = 4;
+    private static final int QUEUE_SIZE = 256; // Power of two
+
+    private final int bufferFrames;
+    private final VoiceStealing stealing;
+
+    // Voices, only touched by the mixing thread
+    private final Sample[] voiceSample;
+    private final int[] voicePosition;
+    private final float[] voiceGain;
+    private final boolean[] voiceLoop;
+    private final long[] voiceStarted;
+    private long playCounter;
+
+    // Multi-producer, single-consumer command ring. A producer claims a ticket with a CAS on
+    // tail, fills the slot, then publishes it by setting the slot sequence to ticket + 1. A slot
+    // sequence behind the ticket means the queue is full; one ahead means tail was read stale.
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLongArray sequence = new AtomicLongArray(QUEUE_SIZE);
+    private final int[] commandOp = new int[QUEUE_SIZE];
+    private final Sample[] commandSample = new Sample[QUEUE_SIZE];
+    private final float[] commandGain = new float[QUEUE_SIZE];
+    private final boolean[] commandLoop = new boolean[QUEUE_SIZE];
+    private final MusicStream[] commandStream = new MusicStream[QUEUE_SIZE];
+    private final int[] commandFade = new int[QUEUE_SIZE];
+    private long head;
+
+    // Music, only touched by the mixing thread
+    private MusicStream music;
+    private MusicStream fadingMusic;
+    private float musicGain;
+    private float fadingGain;
+    private int fadePosition;
+    private int fadeFrames;
+    private final short[] streamBuffer;
+
+    private final int[] mixBuffer;
+    private final byte[] lineBuffer;
+    private volatile float masterGain = 1f;
+    private volatile boolean running;
+    private SourceDataLine line;
+    private Thread thread;
+    private long droppedCommands;
+    private long stolenVoices;
+    private long rejectedPlays;
+
+    AudioMixer(int voices, int bufferFrames, VoiceStealing stealing) {
+        this.bufferFrames = bufferFrames;
+        this.stealing = stealing;
+        voiceSample = new Sample[voices];
+        voicePosition = new int[voices];
+        voiceGain = new float[voices];
+        voiceLoop = new boolean[voices];
+        voiceStarted = new long[voices];
+        mixBuffer = new int[bufferFrames * 2];
+        streamBuffer = new short[bufferFrames * 2];
+        lineBuffer = new byte[bufferFrames * FORMAT.getFrameSize()];
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    // Opens the output line and starts the mixing thread; false if there is no audio device
+    boolean start() {
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            // Twice the mix block: one being played while the next is written
+            line.open(FORMAT, lineBuffer.length * 2);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.out.println("Audio line unavailable (" + e.getMessage() + "), running without audio");
+            line = null;
+            return false;
+        }
+        line.start();
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        System.out.printf("Audio mixer: %d voices, %d-frame buffer (%.1f ms)%n",
+                voiceSample.length, bufferFrames, bufferFrames * 1000 / SAMPLE_RATE);
+        return true;
+    }
+
+    void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+        if (music != null) {
+            music.close();
+            music = null;
+        }
+        if (fadingMusic != null) {
+            fadingMusic.close();
+            fadingMusic = null;
+        }
+    }
+
+    // Decodes a file into the mixing format; null if it is missing or cannot be converted
+    static Sample load(String path) {
+        FlightEvents.AssetLoad event = new FlightEvents.AssetLoad();
+        event.begin();
+        Sample sample = decode(path);
+        event.finish(path, "sound", sample != null ? sample.pcm.length * 2L : -1);
+        return sample;
+    }
+
+    private static Sample decode(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            System.out.println("Sound file not found: " + path + " (will run silently)");
+            return null;
+        }
+        try (AudioInputStream converted = openPcm(path)) {
+            AudioFormat pcm = converted.getFormat();
+            int channels = pcm.getChannels();
+            byte[] bytes = converted.readAllBytes();
+            int frames = bytes.length / pcm.getFrameSize();
+            short[] data = new short[frames * 2];
+            for (int f = 0; f < frames; f++) {
+                int b = f * pcm.getFrameSize();
+                short left = (short) ((bytes[b] & 0xFF) | (bytes[b + 1] << 8));
+                short right = channels == 2 ? (short) ((bytes[b + 2] & 0xFF) | (bytes[b + 3] << 8)) : left;
+                data[f * 2] = left;
+                data[f * 2 + 1] = right;
+            }
+            System.out.println("Loaded: " + path);
+            return new Sample(path, data);
+        } catch (IOException e) {
+            System.out.println("Error reading sound file: " + path + " (" + e.getMessage() + ")");
+        }
+        return null;
+    }
+
+    // Opens a file as 16-bit little-endian PCM at the mixing rate, keeping mono as mono
+    static AudioInputStream openPcm(String path) throws IOException {
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(new File(path));
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("unsupported audio format", e);
+        }
+        int channels = Math.min(source.getFormat().getChannels(), 2);
+        AudioFormat pcm = new AudioFormat(SAMPLE_RATE, 16, channels, true, false);
+        try {
+            return AudioSystem.getAudioInputStream(pcm, source);
+        } catch (IllegalArgumentException e) {
+            source.close();
+            throw new IOException("cannot convert " + source.getFormat(), e);
+        }
+    }
+
+    void play(Sample sample, float gain, boolean loop) {
+        if (sample != null) {
+            post(CMD_PLAY, sample, gain, loop);
+        }
+    }
+
+    // Stops every voice currently playing this sample
+    void stop(Sample sample) {
+        if (sample != null) {
+            post(CMD_STOP, sample, 0f, false);
+        }
+    }
+
+    void stopAll() {
+        post(CMD_STOP_ALL, null, 0f, false);
+    }
+
+    // Crossfades from whatever music is playing to stream (null fades to silence). The mixer
+    // owns the stream from here on and closes it once it has faded out.
+    void playMusic(MusicStream stream, float gain, int fadeFrames) {
+        post(CMD_MUSIC, null, gain, false, stream, fadeFrames);
+    }
+
+    void setMasterGain(float gain) {
+        masterGain = gain;
+    }
+
+    int bufferFrames() {
+        return bufferFrames;
+    }
+
+    // Mixing thread only (or an offline caller of mix())
+    int activeVoices() {
+        int active = 0;
+        for (Sample sample : voiceSample) {
+            if (sample != null) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    long stolenVoices() {
+        return stolenVoices;
+    }
+
+    long rejectedPlays() {
+        return rejectedPlays;
+    }
+
+    long droppedCommands() {
+        return droppedCommands;
+    }
+
+    // Underruns of the current track; mixing thread only, like activeVoices()
+    long musicUnderruns() {
+        return music == null ? 0 : music.underruns();
+    }
+
+    // A full queue drops the request: a missed sound is better than a blocked game thread
+    private void post(int op, Sample sample, float gain, boolean loop) {
+        post(op, sample, gain, loop, null, 0);
+    }
+
+    private void post(int op, Sample sample, float gain, boolean loop, MusicStream stream, int fade) {
+        long ticket;
+        int index;
+        while (true) {
+            ticket = tail.get();
+            index = (int) (ticket & (QUEUE_SIZE - 1));
+            long diff = sequence.get(index) - ticket;
+            if (diff == 0) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                // The slot still holds the command from a lap ago: the queue is full
+                droppedCommands++; // Racy, only a diagnostic
+                if (stream != null) {
+                    stream.close();
+                }
+                return;
+            }
+            // diff > 0: another producer claimed this ticket after tail was read; read it again
+        }
+        commandOp[index] = op;
+        commandSample[index] = sample;
+        commandGain[index] = gain;
+        commandLoop[index] = loop;
+        commandStream[index] = stream;
+        commandFade[index] = fade;
+        sequence.set(index, ticket + 1);
+    }
+
+    private void run() {
+        while (running) {
+            mix(lineBuffer, bufferFrames);
+            // Blocks until the line has room, which is what paces this thread
+            line.write(lineBuffer, 0, lineBuffer.length);
+        }
+    }
+
+    // Applies pending commands and renders the next block of frames into out (16-bit LE
+    // stereo). Runs on the audio thread; package-private so it can be driven offline.
+    void mix(byte[] out, int frames) {
+        drainCommands();
+        int samples = frames * 2;
+        Arrays.fill(mixBuffer, 0, samples, 0);
+        for (int v = 0; v < voiceSample.length; v++) {
+            Sample sample = voiceSample[v];
+            if (sample == null) {
+                continue;
+            }
+            int gain = Math.round(voiceGain[v] * 256);
+            int position = voicePosition[v];
+            for (int i = 0; i < samples; i += 2) {
+                if (position >= sample.frames) {
+                    if (!voiceLoop[v]) {
+                        voiceSample[v] = null;
+                        break;
+                    }
+                    position = 0;
+                }
+                mixBuffer[i] += sample.pcm[position * 2] * gain >> 8;
+                mixBuffer[i + 1] += sample.pcm[position * 2 + 1] * gain >> 8;
+                position++;
+            }
+            voicePosition[v] = position;
+        }
+        mixMusic(frames);
+
+        int master = Math.round(masterGain * 256);
+        for (int i = 0; i < samples; i++) {
+            int value = mixBuffer[i] * master >> 8;
+            // Hard clip instead of wrapping around when many voices stack up
+            if (value > Short.MAX_VALUE) {
+                value = Short.MAX_VALUE;
+            } else if (value < Short.MIN_VALUE) {
+                value = Short.MIN_VALUE;
+            }
+            out[i * 2] = (byte) value;
+            out[i * 2 + 1] = (byte) (value >> 8);
+        }
+    }
+
+    private void drainCommands() {
+        while (true) {
+            int index = (int) (head & (QUEUE_SIZE - 1));
+            if (sequence.get(index) != head + 1) {
+                return;
+            }
+            int op = commandOp[index];
+            Sample sample = commandSample[index];
+            commandSample[index] = null;
+            if (op == CMD_PLAY) {
+                startVoice(sample, commandGain[index], commandLoop[index]);
+            } else if (op == CMD_STOP) {
+                for (int v = 0; v < voiceSample.length; v++) {
+                    if (voiceSample[v] == sample) {
+                        voiceSample[v] = null;
+                    }
+                }
+            } else if (op == CMD_STOP_ALL) {
+                Arrays.fill(voiceSample, null);
+            } else if (op == CMD_MUSIC) {
+                switchMusic(commandStream[index], commandGain[index], commandFade[index]);
+                commandStream[index] = null;
+            }
+            // Hand the slot back to producers one lap ahead
+            sequence.set(index, head + QUEUE_SIZE);
+            head++;
+        }
+    }
+
+    private void switchMusic(MusicStream stream, float gain, int fade) {
+        // A fade still in progress is cut short; only two streams are ever mixed
+        if (fadingMusic != null) {
+            fadingMusic.close();
+        }
+        fadingMusic = music;
+        fadingGain = musicGain;
+        music = stream;
+        musicGain = gain;
+        fadePosition = 0;
+        fadeFrames = Math.max(1, fade);
+    }
+
+    private void mixMusic(int frames) {
+        if (music != null) {
+            mixStream(music, musicGain, frames, false);
+        }
+        if (fadingMusic != null) {
+            mixStream(fadingMusic, fadingGain, frames, true);
+        }
+        fadePosition = (int) Math.min((long) fadePosition + frames, fadeFrames);
+        if (fadePosition == fadeFrames && fadingMusic != null) {
+            fadingMusic.close();
+            fadingMusic = null;
+        }
+    }
+
+    // Linear ramp: up for the incoming stream, down for the outgoing one
+    private void mixStream(MusicStream stream, float streamGain, int frames, boolean fadingOut) {
+        int got = stream.read(streamBuffer, frames);
+        for (int f = 0; f < got; f++) {
+            int position = Math.min(fadePosition + f, fadeFrames);
+            float ramp = (float) position / fadeFrames;
+            int gain = Math.round(streamGain * (fadingOut ? 1f - ramp : ramp) * 256);
+            mixBuffer[f * 2] += streamBuffer[f * 2] * gain >> 8;
+            mixBuffer[f * 2 + 1] += streamBuffer[f * 2 + 1] * gain >> 8;
+        }
+    }
+
+    private void startVoice(Sample sample, float gain, boolean loop) {
+        int voice = -1;
+        for (int v = 0; v < voiceSample.length && voice < 0; v++) {
+            if (voiceSample[v] == null) {
+                voice = v;
+            }
+        }
+        if (voice < 0) {
+            voice = pickVictim();
+            if (voice < 0) {
+                rejectedPlays++;
+                return;
+            }
+            stolenVoices++;
+        }
+        voiceSample[voice] = sample;
+        voicePosition[voice] = 0;
+        voiceGain[voice] = gain;
+        voiceLoop[voice] = loop;
+        voiceStarted[voice] = playCounter++;
+    }
+
+    // Looping voices (music) are never stolen
+    private int pickVictim() {
+        int victim = -1;
+        for (int v = 0; v < voiceSample.length; v++) {
+            if (voiceLoop[v]) {
+                continue;
+            }
+            if (stealing == VoiceStealing.OLDEST) {
+                if (victim < 0 || voiceStarted[v] < voiceStarted[victim]) {
+                    victim = v;
+                }
+            } else if (stealing == VoiceStealing.QUIETEST) {
+                if (victim < 0 || voiceGain[v] < voiceGain[victim]) {
+                    victim = v;
+                }
+            }
+        }
+        return victim;
+    }
+}
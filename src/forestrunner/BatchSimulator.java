@@ -0,0 +1,163 @@
+package forestrunner;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Plays thousands of headless games with a bot and summarises how far they got, for tuning
+// the difficulty curve. Games are independent, so they are split into index ranges on a
+// ForkJoinPool; each leaf reuses one World and one Bot for all of its games and writes its
+// results into disjoint slots of plain arrays, so the workers share nothing while they run
+// and the only coordination is the final join.
+final class BatchSimulator {
+    private static final int LEAF_GAMES = 16; // Games per fork-join leaf
+
+    private final int games;
+    private final String botName;
+    private final long seed;
+    private final int maxTicks;
+    private final boolean endless;
+
+    // Per game results, indexed by game number
+    private final int[] scores;
+    private final int[] levels;
+    private final int[] ticks;
+    private final byte[] causes; // World.Hazard ordinal, or -1 for a game that hit maxTicks
+    private HighScores highScores; // Null unless recordTo() was called
+
+    BatchSimulator(int games, String botName, long seed, int maxTicks, boolean endless) {
+        this.games = games;
+        this.botName = botName;
+        this.seed = seed;
+        this.maxTicks = maxTicks;
+        this.endless = endless;
+        scores = new int[games];
+        levels = new int[games];
+        ticks = new int[games];
+        causes = new byte[games];
+        Bot.named(botName); // Fail on a bad name before any thread starts
+    }
+
+    // Every game that ends from here on goes into the table too; workers record without waiting
+    void recordTo(HighScores highScores) {
+        this.highScores = highScores;
+    }
+
+    // Runs every game on a pool of the given size and returns the wall time in nanoseconds
+    long run(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            pool.invoke(new Games(0, games));
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private final class Games extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Games(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_GAMES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Games(from, middle), new Games(middle, to));
+                return;
+            }
+            World world = new World(ForestRunner.GROUND_Y, ForestRunner.SCREEN_WIDTH, endless, WorldEvents.NONE);
+            Bot bot = Bot.named(botName);
+            boolean[] keys = new boolean[256];
+            for (int game = from; game < to; game++) {
+                play(game, world, bot, keys);
+            }
+        }
+    }
+
+    private void play(int game, World world, Bot bot, boolean[] keys) {
+        long gameSeed = GameRandom.mix(seed + game);
+        world.reset(gameSeed);
+        bot.reset(~gameSeed);
+        Arrays.fill(keys, false);
+        int tick = 0;
+        while (!world.gameOver && tick < maxTicks) {
+            bot.press(world, keys);
+            world.tick(keys);
+            tick++;
+        }
+        scores[game] = world.score;
+        levels[game] = world.level;
+        ticks[game] = tick;
+        causes[game] = (byte) (world.gameOver ? world.lastHit.ordinal() : -1);
+        if (highScores != null && world.gameOver) {
+            highScores.record(world.score, world.level, gameSeed, endless);
+        }
+    }
+
+    void printReport(long nanos, int threads) {
+        long totalTicks = 0;
+        int maxLevel = 0;
+        for (int game = 0; game < games; game++) {
+            totalTicks += ticks[game];
+            maxLevel = Math.max(maxLevel, levels[game]);
+        }
+        double seconds = nanos / 1e9;
+        System.out.printf("%d games, bot %s, %d threads: %.2f s (%.0f games/s, %.0f ticks/s)%n",
+                games, botName, threads, seconds, games / seconds, totalTicks / seconds);
+
+        System.out.println("Levels reached:");
+        int[] perLevel = new int[maxLevel + 1];
+        for (int level : levels) {
+            perLevel[level]++;
+        }
+        for (int level = 1; level <= maxLevel; level++) {
+            if (perLevel[level] > 0) {
+                System.out.printf("  %3d  %7d  %5.1f%%%n", level, perLevel[level], percent(perLevel[level]));
+            }
+        }
+
+        System.out.println("Deaths:");
+        World.Hazard[] hazards = World.Hazard.values();
+        int[] perCause = new int[hazards.length];
+        int survived = 0;
+        for (byte cause : causes) {
+            if (cause < 0) {
+                survived++;
+            } else {
+                perCause[cause]++;
+            }
+        }
+        for (World.Hazard hazard : hazards) {
+            System.out.printf("  %-10s %7d  %5.1f%%%n", hazard.name().toLowerCase(), perCause[hazard.ordinal()],
+                    percent(perCause[hazard.ordinal()]));
+        }
+        System.out.printf("  %-10s %7d  %5.1f%%  (still alive after %d ticks)%n", "none", survived, percent(survived),
+                maxTicks);
+
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int score : sorted) {
+            sum += score;
+        }
+        System.out.printf("Score: min %d, mean %.1f, p50 %d, p90 %d, p99 %d, max %d%n", sorted[0],
+                (double) sum / games, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                sorted[games - 1]);
+    }
+
+    private double percent(int count) {
+        return count * 100.0 / games;
+    }
+
+    private static int percentile(int[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, (int) ((long) sorted.length * p / 100))];
+    }
+}
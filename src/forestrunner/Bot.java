@@ -0,0 +1,102 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+
+// Plays the game instead of a keyboard: called once per tick, before World.tick, to set the
+// keys for that tick. Bots are reused across games, so reset() must clear any state; the seed
+// makes a bot's choices as reproducible as the world it plays in.
+interface Bot {
+    void reset(long seed);
+
+    void press(World world, boolean[] keys);
+
+    static Bot named(String name) {
+        switch (name) {
+            case "random":
+                return new RandomBot();
+            case "runner":
+                return new RunnerBot();
+            default:
+                throw new IllegalArgumentException("Unknown bot " + name + " (expected random or runner)");
+        }
+    }
+
+    // Mashes keys: picks a new direction and maybe a jump every few ticks
+    final class RandomBot implements Bot {
+        private final GameRandom random = new GameRandom(0);
+        private int hold;
+
+        @Override
+        public void reset(long seed) {
+            random.setSeed(seed);
+            hold = 0;
+        }
+
+        @Override
+        public void press(World world, boolean[] keys) {
+            if (--hold > 0) {
+                keys[KeyEvent.VK_UP] = false;
+                return;
+            }
+            hold = 10 + random.nextInt(50);
+            int move = random.nextInt(10);
+            keys[KeyEvent.VK_LEFT] = move == 0;
+            keys[KeyEvent.VK_RIGHT] = move > 1;
+            keys[KeyEvent.VK_UP] = random.nextInt(3) == 0;
+        }
+    }
+
+    // Runs to the nearest fruit left in the level and jumps when an animal or obstacle is just
+    // ahead, missing the jump now and then so it plays like a decent human rather than perfectly
+    final class RunnerBot implements Bot {
+        private static final int LOOK_AHEAD = 90;
+        private final GameRandom random = new GameRandom(0);
+
+        @Override
+        public void reset(long seed) {
+            random.setSeed(seed);
+        }
+
+        @Override
+        public void press(World world, boolean[] keys) {
+            Player player = world.player;
+            int centre = player.x + player.width / 2;
+            int target = nearestFruit(world.fruits, centre);
+            // In endless mode, or with the fruit underfoot, keep running right
+            boolean right = target < 0 || target >= centre;
+            int from = right ? player.x + player.width : player.x - LOOK_AHEAD;
+            int to = from + LOOK_AHEAD;
+            boolean danger = anyAhead(world.animals, from, to) || anyAhead(world.obstacles, from, to);
+            keys[KeyEvent.VK_RIGHT] = right;
+            keys[KeyEvent.VK_LEFT] = !right;
+            keys[KeyEvent.VK_UP] = danger && random.nextInt(100) < 85;
+        }
+
+        // Centre x of the closest fruit, or -1 when there is none
+        private static int nearestFruit(EntityStore<Fruit> fruits, int x) {
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int slot = 0; slot < fruits.size(); slot++) {
+                int centre = fruits.x[slot] + fruits.w[slot] / 2;
+                int distance = Math.abs(centre - x);
+                if (distance < bestDistance) {
+                    best = centre;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+
+        private static boolean anyAhead(EntityStore<?> store, int from, int to) {
+            for (int c = store.firstCell(from); c <= store.lastCell(to); c++) {
+                for (int i = 0; i < store.cellCount(c); i++) {
+                    int slot = store.slotOf(store.cellId(c, i));
+                    if (store.x[slot] < to && store.x[slot] + store.w[slot] > from) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package forestrunner;
+
+// HUD text like "Score: 120" that is only rebuilt when its value changes, so drawing it
+// every frame does not allocate a new String
+final class CachedLabel {
+    private final String prefix;
+    private int value;
+    private String text;
+
+    CachedLabel(String prefix) {
+        this.prefix = prefix;
+        this.value = 0;
+        this.text = prefix + 0;
+    }
+
+    String of(int newValue) {
+        if (newValue != value) {
+            value = newValue;
+            text = prefix + newValue;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,53 @@
+package forestrunner;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+// A screen rectangle whose content only changes with some state, kept in a translucent image
+// and blitted every frame. The caller packs the state into a key; only a new key repaints.
+final class CachedLayer {
+    private final BufferedImage image;
+    private final int x;
+    private final int y;
+    private long key;
+    private boolean valid;
+    private int redraws;
+
+    CachedLayer(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        image = SpriteAtlas.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    // A cleared Graphics in screen coordinates when the key changed, null when the cached
+    // image is still good. The caller paints into it and disposes it.
+    Graphics2D redrawIfChanged(long newKey) {
+        if (valid && key == newKey) {
+            return null;
+        }
+        key = newKey;
+        valid = true;
+        redraws++;
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        g.translate(-x, -y);
+        return g;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    void draw(Graphics g) {
+        g.drawImage(image, x, y, null);
+    }
+
+    int redraws() {
+        return redraws;
+    }
+}
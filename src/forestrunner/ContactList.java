@@ -0,0 +1,66 @@
+package forestrunner;
+
+import java.util.Arrays;
+
+// What the player touched during one tick: when (time of impact as a fraction of the tick,
+// 0..1), in which store (a kind chosen by World) and which entity (its id, which stays valid
+// while slots move). World fills it from the swept narrow phase, sorts it and resolves the
+// contacts in the order they happened. Reused every tick, so it only allocates while growing.
+final class ContactList {
+    private double[] times = new double[16];
+    private int[] kinds = new int[16];
+    private int[] ids = new int[16];
+    private int size;
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(double time, int kind, int id) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            kinds = Arrays.copyOf(kinds, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        times[size] = time;
+        kinds[size] = kind;
+        ids[size] = id;
+        size++;
+    }
+
+    // Insertion sort: a tick has a handful of contacts at most, and it is stable, so contacts at
+    // the same instant keep the order they were added in
+    void sortByTime() {
+        for (int i = 1; i < size; i++) {
+            double time = times[i];
+            int kind = kinds[i];
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= 0 && times[j] > time) {
+                times[j + 1] = times[j];
+                kinds[j + 1] = kinds[j];
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            times[j + 1] = time;
+            kinds[j + 1] = kind;
+            ids[j + 1] = id;
+        }
+    }
+
+    double time(int index) {
+        return times[index];
+    }
+
+    int kind(int index) {
+        return kinds[index];
+    }
+
+    int id(int index) {
+        return ids[index];
+    }
+}
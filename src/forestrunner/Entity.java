@@ -0,0 +1,17 @@
+package forestrunner;
+
+// Position and size shared by everything the player can touch in the level
+abstract class Entity {
+    int x, y, width, height;
+
+    // Position is set by the subclass reset(), which also runs whenever a pooled instance is reused
+    Entity(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    boolean intersects(int otherX, int otherY, int otherWidth, int otherHeight) {
+        return otherX < x + width && x < otherX + otherWidth
+                && otherY < y + height && y < otherY + otherHeight;
+    }
+}
@@ -0,0 +1,51 @@
+package forestrunner;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Free list of entity instances that have left the level. obtain() hands back a released
+// instance when there is one (a hit) and only falls back to the factory when the pool is
+// empty (a miss); callers reset() whatever they get before using it. Not thread-safe: pools
+// are only touched from the game thread while it holds the world lock.
+final class EntityPool<T extends Entity> {
+    private final Supplier<T> factory;
+    private Object[] idle = new Object[16];
+    private int idleCount;
+    private long hits;
+    private long misses;
+
+    EntityPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    T obtain() {
+        if (idleCount > 0) {
+            hits++;
+            T entity = (T) idle[--idleCount];
+            idle[idleCount] = null;
+            return entity;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    void release(T entity) {
+        if (idleCount == idle.length) {
+            idle = Arrays.copyOf(idle, idle.length * 2);
+        }
+        idle[idleCount++] = entity;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    int idle() {
+        return idleCount;
+    }
+}
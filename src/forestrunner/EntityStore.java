@@ -0,0 +1,281 @@
+package forestrunner;
+
+import java.util.Arrays;
+
+// Structure-of-arrays storage for one kind of entity. Bounds, type and state sit in parallel
+// int arrays indexed by a dense slot so the hot loops walk memory linearly; the entity objects
+// are only touched for behaviour and drawing. Removal swaps the last slot into the hole (O(1)),
+// so slots move around; ids stay stable for as long as an entity is alive and are what the
+// built-in SpatialGrid indexes. A store built with an EntityPool hands every removed entity
+// back to it, so level changes and despawns recycle instances instead of dropping them.
+final class EntityStore<T extends Entity> {
+    static final int STATE_ACTIVE = 1;
+    static final double MISS = Double.POSITIVE_INFINITY; // sweep() result when nothing touches
+
+    // Parallel arrays, valid for slots [0, size)
+    int[] x, y, w, h, type, state;
+    private Object[] items;
+    private int[] idOfSlot;
+    private int size;
+
+    // id -> slot (or -1), with freed ids recycled
+    private int[] slotOfId = new int[0];
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    private final SpatialGrid grid = new SpatialGrid();
+    private int[] visible = new int[16]; // Scratch for collectVisible()
+    private final EntityPool<T> pool;
+
+    EntityStore() {
+        this(16, null);
+    }
+
+    EntityStore(int capacity) {
+        this(capacity, null);
+    }
+
+    EntityStore(EntityPool<T> pool) {
+        this(16, pool);
+    }
+
+    EntityStore(int capacity, EntityPool<T> pool) {
+        this.pool = pool;
+        x = new int[capacity];
+        y = new int[capacity];
+        w = new int[capacity];
+        h = new int[capacity];
+        type = new int[capacity];
+        state = new int[capacity];
+        items = new Object[capacity];
+        idOfSlot = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int slot) {
+        return (T) items[slot];
+    }
+
+    int idAt(int slot) {
+        return idOfSlot[slot];
+    }
+
+    int slotOf(int id) {
+        return id >= 0 && id < slotOfId.length ? slotOfId[id] : -1;
+    }
+
+    // A recycled (or, on a pool miss, new) instance; reset it before add(). Needs a pool.
+    T obtain() {
+        return pool.obtain();
+    }
+
+    EntityPool<T> pool() {
+        return pool;
+    }
+
+    int add(T entity, int entityType) {
+        if (size == items.length) {
+            grow(size * 2);
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : newId();
+        int slot = size++;
+        items[slot] = entity;
+        idOfSlot[slot] = id;
+        slotOfId[id] = slot;
+        x[slot] = entity.x;
+        y[slot] = entity.y;
+        w[slot] = entity.width;
+        h[slot] = entity.height;
+        type[slot] = entityType;
+        state[slot] = STATE_ACTIVE;
+        grid.insert(id, entity.x, entity.width);
+        return id;
+    }
+
+    void removeAt(int slot) {
+        release(slot);
+        int id = idOfSlot[slot];
+        grid.remove(id, x[slot]);
+        int last = --size;
+        if (slot != last) {
+            items[slot] = items[last];
+            x[slot] = x[last];
+            y[slot] = y[last];
+            w[slot] = w[last];
+            h[slot] = h[last];
+            type[slot] = type[last];
+            state[slot] = state[last];
+            idOfSlot[slot] = idOfSlot[last];
+            slotOfId[idOfSlot[slot]] = slot;
+        }
+        items[last] = null;
+        slotOfId[id] = -1;
+        pushFreeId(id);
+    }
+
+    boolean remove(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    // Ids restart from 0 so a regenerated level numbers its entities the same way every time
+    void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            release(slot);
+        }
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        Arrays.fill(slotOfId, -1);
+        freeCount = 0;
+        for (int id = slotOfId.length - 1; id >= 0; id--) {
+            pushFreeId(id);
+        }
+        grid.clear();
+    }
+
+    // Copy the position back from the entity object after its update moved it
+    void moved(int slot) {
+        T entity = get(slot);
+        int oldX = x[slot];
+        x[slot] = entity.x;
+        y[slot] = entity.y;
+        if (oldX != entity.x) {
+            grid.moved(idOfSlot[slot], oldX, entity.x);
+        }
+    }
+
+    boolean intersects(int slot, int otherX, int otherY, int otherWidth, int otherHeight) {
+        return otherX < x[slot] + w[slot] && x[slot] < otherX + otherWidth
+                && otherY < y[slot] + h[slot] && y[slot] < otherY + otherHeight;
+    }
+
+    // Swept test for a box that moves by (dx, dy) during a tick, starting at (otherX, otherY),
+    // against this slot, which moved by slotDx along x and ends the tick where the store has it.
+    // Both are taken to move in a straight line, so the test works on the motion of one relative
+    // to the other. Returns the fraction of the tick (0..1) at which they first overlap, or MISS.
+    // Anything intersects() finds at the end of the tick is found here too, at the latest at 1.
+    double sweep(int slot, int slotDx, int otherX, int otherY, int otherWidth, int otherHeight, int dx, int dy) {
+        // Most candidates from the grid are nowhere near; boxes around both paths rule them out
+        int startX = x[slot] - slotDx;
+        if (Math.max(otherX, otherX + dx) + otherWidth <= Math.min(startX, x[slot])
+                || Math.max(startX, x[slot]) + w[slot] <= Math.min(otherX, otherX + dx)
+                || Math.max(otherY, otherY + dy) + otherHeight <= y[slot]
+                || y[slot] + h[slot] <= Math.min(otherY, otherY + dy)) {
+            return MISS;
+        }
+        double enter = 0;
+        double exit = 1;
+        int relativeX = dx - slotDx;
+        if (relativeX == 0) {
+            if (otherX >= startX + w[slot] || startX >= otherX + otherWidth) {
+                return MISS;
+            }
+        } else {
+            double first = (double) (startX - otherWidth - otherX) / relativeX;
+            double last = (double) (startX + w[slot] - otherX) / relativeX;
+            enter = Math.max(enter, Math.min(first, last));
+            exit = Math.min(exit, Math.max(first, last));
+        }
+        if (dy == 0) {
+            if (otherY >= y[slot] + h[slot] || y[slot] >= otherY + otherHeight) {
+                return MISS;
+            }
+        } else {
+            double first = (double) (y[slot] - otherHeight - otherY) / dy;
+            double last = (double) (y[slot] + h[slot] - otherY) / dy;
+            enter = Math.max(enter, Math.min(first, last));
+            exit = Math.min(exit, Math.max(first, last));
+        }
+        // Overlap is strict, as in intersects(): boxes that only touch during the tick miss
+        return enter < exit ? enter : MISS;
+    }
+
+    // Broad phase: ids of entities that may overlap [minX, maxX] are found in
+    // cells firstCell(minX)..lastCell(maxX) via cellCount() and cellId()
+    int firstCell(int minX) {
+        return grid.firstCell(minX);
+    }
+
+    int lastCell(int maxX) {
+        return grid.lastCell(maxX);
+    }
+
+    int cellCount(int cell) {
+        return grid.count(cell);
+    }
+
+    int cellId(int cell, int index) {
+        return grid.get(cell, index);
+    }
+
+    // Finds the entities overlapping [minX, maxX] through the grid, so the cost follows what is
+    // on screen rather than the level length. Slots come out column by column, left to right;
+    // read them with visibleSlot(0 .. count-1). Valid until the store changes.
+    int collectVisible(int minX, int maxX) {
+        int count = 0;
+        for (int c = grid.firstCell(minX); c <= grid.lastCell(maxX); c++) {
+            for (int i = 0; i < grid.count(c); i++) {
+                int slot = slotOfId[grid.get(c, i)];
+                // Columns that share a bucket after wrapping are told apart here
+                if (x[slot] < maxX && x[slot] + w[slot] > minX) {
+                    if (count == visible.length) {
+                        visible = Arrays.copyOf(visible, count * 2);
+                    }
+                    visible[count++] = slot;
+                }
+            }
+        }
+        return count;
+    }
+
+    int visibleSlot(int index) {
+        return visible[index];
+    }
+
+    private void release(int slot) {
+        if (pool != null) {
+            pool.release(get(slot));
+        }
+    }
+
+    private int newId() {
+        int id = slotOfId.length;
+        slotOfId = Arrays.copyOf(slotOfId, Math.max(16, id * 2));
+        Arrays.fill(slotOfId, id, slotOfId.length, -1);
+        // Every id past the one we hand out now is free, lowest on top of the stack
+        for (int i = slotOfId.length - 1; i > id; i--) {
+            pushFreeId(i);
+        }
+        return id;
+    }
+
+    private void pushFreeId(int id) {
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(16, freeIds.length * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        w = Arrays.copyOf(w, capacity);
+        h = Arrays.copyOf(h, capacity);
+        type = Arrays.copyOf(type, capacity);
+        state = Arrays.copyOf(state, capacity);
+        items = Arrays.copyOf(items, capacity);
+        idOfSlot = Arrays.copyOf(idOfSlot, capacity);
+    }
+}
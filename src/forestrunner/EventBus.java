@@ -0,0 +1,172 @@
+package forestrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// Carries the simulation's WorldEvents off the tick thread. World calls the WorldEvents methods
+// as before; the bus copies each call into a preallocated ring of GameEvents and returns, and
+// every subscriber reads the whole stream, in order, on a thread of its own. Sounds, music
+// changes and stats never run inside a tick, and a headless World still gets WorldEvents.NONE.
+// There is one publisher, the thread that ticks the World. Publishing never waits: when the
+// slowest subscriber is a whole ring behind, the new event is dropped and counted instead.
+final class EventBus implements WorldEvents {
+    interface Handler {
+        void onEvent(GameEvent event);
+    }
+
+    private final GameEvent[] ring;
+    private final int mask;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private Subscriber[] running = new Subscriber[0]; // Fixed by start()
+    private volatile long published = -1;              // Last sequence subscribers may read
+    private volatile long dropped;                     // Only the publisher writes it
+
+    // capacity: a power of two, comfortably more than the events of the longest stall
+    EventBus(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("ring capacity must be a power of two: " + capacity);
+        }
+        ring = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new GameEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    // Subscribers join before start(); each gets a daemon thread named after it
+    void subscribe(String name, Handler handler) {
+        if (running.length > 0) {
+            throw new IllegalStateException("subscribe before the bus starts: " + name);
+        }
+        subscribers.add(new Subscriber(name, handler));
+    }
+
+    // Subscribers see what is published from here on
+    void start() {
+        running = subscribers.toArray(new Subscriber[0]);
+        for (Subscriber subscriber : running) {
+            subscriber.consumed = published;
+            subscriber.start();
+        }
+    }
+
+    // Lets every subscriber finish what has been published, then ends its thread
+    void stop() throws InterruptedException {
+        for (Subscriber subscriber : running) {
+            subscriber.active = false;
+            LockSupport.unpark(subscriber);
+        }
+        for (Subscriber subscriber : running) {
+            subscriber.join();
+        }
+    }
+
+    long publishedCount() {
+        return published + 1;
+    }
+
+    long droppedCount() {
+        return dropped;
+    }
+
+    @Override
+    public void fruitCollected() {
+        publish(GameEvent.Type.FRUIT_COLLECTED, null, 0);
+    }
+
+    @Override
+    public void powerUpCollected() {
+        publish(GameEvent.Type.POWER_UP_COLLECTED, null, 0);
+    }
+
+    @Override
+    public void playerHit(World.Hazard hazard) {
+        publish(GameEvent.Type.DAMAGE_TAKEN, hazard, 0);
+    }
+
+    @Override
+    public void levelUp(int level) {
+        publish(GameEvent.Type.LEVEL_UP, null, level);
+    }
+
+    @Override
+    public void gameOver() {
+        publish(GameEvent.Type.GAME_OVER, null, 0);
+    }
+
+    @Override
+    public void jumped() {
+        publish(GameEvent.Type.JUMP, null, 0);
+    }
+
+    private void publish(GameEvent.Type type, World.Hazard hazard, int level) {
+        long sequence = published + 1;
+        if (sequence - ring.length > slowestConsumed()) {
+            dropped = dropped + 1;
+            return;
+        }
+        GameEvent event = ring[(int) sequence & mask];
+        event.sequence = sequence;
+        event.type = type;
+        event.hazard = hazard;
+        event.level = level;
+        published = sequence; // Volatile write: whoever reads it also sees the fields above
+        // Waking a thread is a system call; only subscribers on their way to park need it
+        for (Subscriber subscriber : running) {
+            if (subscriber.parking) {
+                LockSupport.unpark(subscriber);
+            }
+        }
+    }
+
+    // The oldest slot still being read bounds how far the publisher may go round the ring
+    private long slowestConsumed() {
+        long slowest = Long.MAX_VALUE;
+        for (Subscriber subscriber : running) {
+            slowest = Math.min(slowest, subscriber.consumed);
+        }
+        return slowest;
+    }
+
+    private final class Subscriber extends Thread {
+        private final Handler handler;
+        volatile long consumed = -1; // Last sequence handled; its slot and older ones are free
+        volatile boolean active = true;
+        volatile boolean parking;    // Set before the last look at published, cleared on waking
+
+        Subscriber(String name, Handler handler) {
+            super(name);
+            setDaemon(true);
+            this.handler = handler;
+        }
+
+        // Handles everything available as one batch and only then frees the slots. Before parking
+        // it sets parking and looks at published once more; the publisher writes published and
+        // then reads parking, so one of the two always sees the other and no event is stranded.
+        @Override
+        public void run() {
+            long next = consumed + 1;
+            while (true) {
+                boolean stopping = !active;
+                long available = published;
+                for (; next <= available; next++) {
+                    try {
+                        handler.onEvent(ring[(int) next & mask]);
+                    } catch (RuntimeException e) {
+                        System.out.println("Event handler " + getName() + " failed: " + e);
+                    }
+                }
+                consumed = available;
+                if (stopping) {
+                    return;
+                }
+                parking = true;
+                if (published == available && active) {
+                    LockSupport.park(this);
+                }
+                parking = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package forestrunner;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Java Flight Recorder events for what the game is doing, so a recording lines GC pauses and
+// hitches up with ticks, level changes and asset loads. They cost nothing measurable while no
+// recording is running: the per-tick event is not even allocated unless it is enabled.
+//   java -XX:StartFlightRecording=filename=run.jfr,settings=profile ForestRunner
+final class FlightEvents {
+    private FlightEvents() {}
+
+    @Name("forestrunner.Tick")
+    @Label("Game Tick")
+    @Category({"Forest Runner", "Simulation"})
+    @Description("One fixed simulation step of the world")
+    @StackTrace(false)
+    static final class Tick extends Event {
+        private static final EventType TYPE = EventType.getEventType(Tick.class);
+
+        @Label("Level")
+        int level;
+
+        @Label("Score")
+        int score;
+
+        @Label("Entities")
+        @Description("Fruit, animals, power-ups and obstacles alive after the tick")
+        int entities;
+
+        @Label("Allocated")
+        @Description("Heap allocated by the ticking thread during the tick, -1 if unknown")
+        @DataAmount
+        long allocated;
+
+        private transient long allocatedBefore;
+
+        // Null unless a recording has this event enabled
+        static Tick start() {
+            if (!TYPE.isEnabled()) {
+                return null;
+            }
+            Tick event = new Tick();
+            event.allocatedBefore = AllocationCounter.currentThreadBytes();
+            event.begin();
+            return event;
+        }
+
+        void finish(World world) {
+            end();
+            long allocatedAfter = AllocationCounter.currentThreadBytes();
+            allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+            level = world.level;
+            score = world.score;
+            entities = world.entityCount();
+            commit();
+        }
+    }
+
+    @Name("forestrunner.LevelChange")
+    @Label("Level Change")
+    @Category({"Forest Runner", "Simulation"})
+    @StackTrace(false)
+    static final class LevelChange extends Event {
+        private static final EventType TYPE = EventType.getEventType(LevelChange.class);
+
+        @Label("From Level")
+        int fromLevel;
+
+        @Label("To Level")
+        int toLevel;
+
+        @Label("Score")
+        int score;
+
+        @Label("Endless")
+        boolean endless;
+
+        static void emit(int fromLevel, int toLevel, int score, boolean endless) {
+            if (!TYPE.isEnabled()) {
+                return;
+            }
+            LevelChange event = new LevelChange();
+            if (event.shouldCommit()) {
+                event.fromLevel = fromLevel;
+                event.toLevel = toLevel;
+                event.score = score;
+                event.endless = endless;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("forestrunner.LevelGenerated")
+    @Label("Level Generated")
+    @Category({"Forest Runner", "Simulation"})
+    @Description("A whole level, or one endless-mode chunk, filled with entities")
+    @StackTrace(false)
+    static final class LevelGenerated extends Event {
+        private static final EventType TYPE = EventType.getEventType(LevelGenerated.class);
+
+        @Label("Level")
+        int level;
+
+        @Label("Chunk")
+        @Description("Endless-mode chunk index, -1 for a whole level")
+        int chunk;
+
+        @Label("Fruits")
+        int fruits;
+
+        @Label("Animals")
+        int animals;
+
+        @Label("Power-Ups")
+        int powerUps;
+
+        @Label("Obstacles")
+        int obstacles;
+
+        // Null unless a recording has this event enabled; every endless chunk starts one
+        static LevelGenerated start() {
+            if (!TYPE.isEnabled()) {
+                return null;
+            }
+            LevelGenerated event = new LevelGenerated();
+            event.begin();
+            return event;
+        }
+
+        // Counts are what this generation added to each store
+        void finish(int level, int chunk, int fruits, int animals, int powerUps, int obstacles) {
+            end();
+            if (shouldCommit()) {
+                this.level = level;
+                this.chunk = chunk;
+                this.fruits = fruits;
+                this.animals = animals;
+                this.powerUps = powerUps;
+                this.obstacles = obstacles;
+                commit();
+            }
+        }
+    }
+
+    @Name("forestrunner.AssetLoad")
+    @Label("Asset Load")
+    @Category({"Forest Runner", "Assets"})
+    @Description("An image or sound decoded from disk")
+    static final class AssetLoad extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Kind")
+        String kind;
+
+        @Label("Decoded Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Loaded")
+        @Description("False if the file was missing or could not be decoded")
+        boolean loaded;
+
+        // bytes < 0 means the file could not be loaded
+        void finish(String path, String kind, long bytes) {
+            end();
+            if (shouldCommit()) {
+                this.path = path;
+                this.kind = kind;
+                this.bytes = Math.max(0, bytes);
+                this.loaded = bytes >= 0;
+                commit();
+            }
+        }
+    }
+}
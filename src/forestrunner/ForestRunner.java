@@ -0,0 +1,875 @@
+package forestrunner;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.awt.image.BufferedImage;
+
+// Main Game Class
+public class ForestRunner extends JPanel implements KeyListener {
+    private static final long serialVersionUID = 1L;
+
+    // Package-private so headless tools (Replay, AllocationCheck) build the same playfield
+    static final int SCREEN_WIDTH = 800;
+    static final int SCREEN_HEIGHT = 600;
+    static final int GROUND_Y = 500;
+
+    // Drawing resources are created once; nothing on the per-frame path allocates
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final Font SUBTITLE_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Font INSTRUCTION_FONT = new Font("Arial", Font.PLAIN, 18);
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font HUD_SMALL_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font STATS_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final String[] PLAYER_TAGS = {"P1", "P2"}; // Above each player on a split screen
+    private static final int TAG_SIZE = 16; // The tags are painted once into images this big
+    private static final Color HUD_PANEL = new Color(0, 0, 0, 100);
+    private static final int DRAW_SLACK = 64;
+    private static final String PROFILE_HEADER = String.format("%-11s %5s %7s %7s %7s", "span", "/s", "p50", "p99", "max ms");
+    private static final Color STATS_PANEL = new Color(0, 0, 0, 150);
+    private static final Color GAME_OVER_SHADE = new Color(0, 0, 0, 150);
+    private static final Color FOREST_GREEN = new Color(0, 100, 0);
+    private static final Color LOADING_TRACK = new Color(0, 60, 0);
+    private static final Color GRASS = new Color(34, 139, 34);
+    private static final String[] INSTRUCTIONS = {
+            "Press SPACE to start",
+            "LEFT/RIGHT arrows to move",
+            "UP arrow to jump",
+            "Collect power-ups for special abilities!"
+    };
+    private static final String[] TWO_PLAYER_INSTRUCTIONS = {
+            "Press SPACE to start",
+            "Player 1: LEFT/RIGHT to move, UP to jump",
+            "Player 2: A/D to move, W to jump",
+            "Collect power-ups for special abilities!"
+    };
+    private static final GradientPaint SKY_GRADIENT = new GradientPaint(0, 0, new Color(135, 206, 235),
+            0, SCREEN_HEIGHT, new Color(173, 216, 230));
+
+    // Game variables
+    private final GameOptions options;
+    private GameLoop gameLoop;
+    // Guards all game state: ticks run on the loop thread, painting and input on the EDT
+    private final Object worldLock = new Object();
+    private boolean gameRunning = false;
+
+    // Sound variables
+    private SoundManager soundManager;
+
+    // World events leave the tick through the bus; audio and stats read them on their own threads
+    private static final int EVENT_RING_SIZE = 1024;
+    private final EventBus events = new EventBus(EVENT_RING_SIZE);
+    private final AtomicLongArray eventCounts = new AtomicLongArray(GameEvent.Type.values().length);
+
+    // Asset loading
+    private AssetLoader assetLoader;
+    private boolean assetsReady = false;
+    private static final String[] REQUIRED_IMAGES = {
+            "images/idle.png", "images/apple.png", "images/animals.png", "images/powerup.png", "images/obstacle.png"
+    };
+
+    // Simulation: player, level and entities, created once the sprites are in
+    private World world;
+    private int gamesPlayed = 0;
+    private InputRecording recording; // Only with --record, the game in progress
+    private WorldSnapshot snapshot;   // Only with --save
+    private int ticksUntilSave;
+    private static final String DEFAULT_SCORES_FILE = "highscores.dat";
+    private HighScores highScores;    // Null if the log could not be opened
+    // Two players: input goes through Rollback, player 2's through the loopback link
+    private Rollback rollback;
+    private LoopbackLink link;
+
+    // Input
+    private boolean[] keys = new boolean[256];
+    private final boolean[] secondKeys = new boolean[256]; // Player 2's WASD, as the arrows Player reads
+
+    // Rendering
+    private volatile double renderAlpha = 1.0; // How far we are between the previous and the current tick
+    private final FrameStats frameStats = new FrameStats();
+    private boolean showStats = false;
+    private final Profiler profiler = new Profiler();
+    private final double[][] profileRows = new double[Profiler.Span.values().length][Profiler.COLUMNS];
+    private GameCanvas canvas; // Only set in active rendering mode
+    private final CachedLabel scoreLabel = new CachedLabel("Score: ");
+    private final CachedLabel levelLabel = new CachedLabel("Level: ");
+    private final CachedLabel livesLabel = new CachedLabel("Lives: ");
+    private final CachedLabel finalScoreLabel = new CachedLabel("Final Score: ");
+    private final CachedLabel levelReachedLabel = new CachedLabel("Level Reached: ");
+    // Where the last game placed, rebuilt only when the table or the score changes
+    private HighScores.Table standingTable;
+    private int standingScore;
+    private String standingText = "";
+
+    // Background scrolling: clouds repeat every CLOUD_PERIOD pixels of their layer
+    private static final int[] CLOUD_X = {100, 300, 500, 700};
+    private static final int[] CLOUD_Y = {50, 80, 120, 90};
+    private static final int CLOUD_PERIOD = SCREEN_WIDTH + 200;
+
+    // Parallax layers, pre-rendered once the images are in: one blit each per frame
+    private ParallaxLayer skyLayer;
+    private ParallaxLayer cloudLayer;
+    private ParallaxLayer groundLayer;
+
+    // HUD pieces, repainted only when the values they show change
+    private final CachedLayer hudPanel = new CachedLayer(0, 0, 210, 115);
+    private final CachedLayer secondHudPanel = new CachedLayer(SCREEN_WIDTH / 2, 0, 210, 115);
+    private final CachedLayer progressBar = new CachedLayer(SCREEN_WIDTH - 160, 0, 160, 45);
+    // Split screen: each view is drawn into its own image, which clips it to its half, through
+    // a Graphics kept for the whole run, so a frame creates no Graphics or clip shapes
+    private BufferedImage[] viewImages;
+    private Graphics2D[] viewGraphics;
+    private BufferedImage[] tagImages; // P1 and P2 painted once, as text allocates as it draws
+
+
+    public ForestRunner(GameOptions options) {
+        this(options, true);
+    }
+
+    // Not interactive: no keyboard focus, sound, asset loader, game loop, profile export or
+    // high-score file; see headless()
+    private ForestRunner(GameOptions options, boolean interactive) {
+        this.options = options;
+        this.setPreferredSize(new Dimension(SCREEN_WIDTH, SCREEN_HEIGHT));
+        this.showStats = options.showStats;
+        profiler.setOverlayShown(options.showProfile);
+        if (!interactive) {
+            events.subscribe("event-stats", event -> eventCounts.incrementAndGet(event.type.ordinal()));
+            events.start();
+            return;
+        }
+        this.setFocusable(true);
+        this.addKeyListener(this);
+        if (options.profilePath != null) {
+            profiler.startExport(Paths.get(options.profilePath), options.profileIntervalSeconds);
+        }
+        openHighScores();
+
+        if (options.activeRendering) {
+            // The canvas covers the whole panel and is drawn directly from the game loop
+            canvas = new GameCanvas(SCREEN_WIDTH, SCREEN_HEIGHT, this::paintFrame);
+            canvas.addKeyListener(this);
+            this.setFocusable(false); // Let the canvas take the initial keyboard focus
+            this.setLayout(new BorderLayout());
+            this.add(canvas, BorderLayout.CENTER);
+        }
+
+        // Initialize sound manager
+        soundManager = new SoundManager(options.voices, options.audioBufferFrames, options.voiceStealing);
+
+        // Decode everything in the background; the start screen shows progress meanwhile
+        assetLoader = new AssetLoader();
+        for (String path : REQUIRED_IMAGES) {
+            assetLoader.submitImage(path, true);
+        }
+        // The parallax layers are scaled to the screen once, right after decoding
+        assetLoader.submit("images/background.png", true,
+                () -> SpriteAtlas.scaled("images/background.png", SCREEN_WIDTH, SCREEN_HEIGHT));
+        assetLoader.submit("images/ground1.jpg", true,
+                () -> SpriteAtlas.scaled("images/ground1.jpg", SCREEN_WIDTH, SCREEN_HEIGHT - GROUND_Y));
+        soundManager.loadSounds(assetLoader);
+        assetLoader.finishSubmitting();
+
+        events.subscribe("event-audio", this::playEventSound);
+        events.subscribe("event-stats", event -> eventCounts.incrementAndGet(event.type.ordinal()));
+        events.start();
+
+        gameRunning = false; // Start with start screen
+        gameLoop = new GameLoop(World.TICKS_PER_SECOND, options.maxFps, this::tick, this::requestFrame);
+        gameLoop.start();
+
+        soundManager.playBackgroundMusic();
+    }
+
+    // The game without a window, for headless checks (AllocationCheck): the world is built
+    // straight away and the first game is running. The caller plays it through keyPressed(),
+    // keyReleased() and tick(), and draws frames of it with paintFrame().
+    static ForestRunner headless(GameOptions options) {
+        ForestRunner game = new ForestRunner(options, false);
+        synchronized (game.worldLock) {
+            game.onRequiredAssetsLoaded();
+            game.gameRunning = true;
+        }
+        return game;
+    }
+
+    // The world being played; null until the sprites are in
+    World world() {
+        return world;
+    }
+
+    // Back to a state World.writeTo() kept, as resuming a save does: the rollback history and
+    // anything on the link belong to the ticks being undone
+    void restore(ByteBuffer state) {
+        synchronized (worldLock) {
+            world.readFrom(state);
+            resetRollback();
+        }
+    }
+
+    // One fixed simulation step, called from the game loop thread
+    void tick() {
+        long tickStart = profiler.begin();
+        synchronized (worldLock) {
+            if (!assetsReady && assetLoader.isRequiredReady()) {
+                onRequiredAssetsLoaded();
+            }
+            if (gameRunning && !isGameOver()) {
+                if (rollback != null) {
+                    tickTwoPlayers();
+                } else {
+                    if (recording != null) {
+                        recording.record(keys);
+                    }
+                    world.tick(keys);
+                }
+                if (isGameOver() && highScores != null) {
+                    highScores.record(world.score, world.level, world.seed(), options.endless);
+                }
+                if (isGameOver() && recording != null) {
+                    saveRecording();
+                }
+                if (snapshot != null && (--ticksUntilSave <= 0 || isGameOver())) {
+                    saveSnapshot();
+                }
+            }
+        }
+        profiler.end(Profiler.Span.TICK, tickStart);
+    }
+
+    // Player 1's keys count at once. Player 2's go through the loopback link, so with
+    // --input-delay they arrive late and Rollback plays on with a guess until they do.
+    private void tickTwoPlayers() {
+        long now = rollback.tick();
+        rollback.confirm(0, now, InputRecording.mask(keys));
+        secondKeys[KeyEvent.VK_LEFT] = keys[KeyEvent.VK_A];
+        secondKeys[KeyEvent.VK_UP] = keys[KeyEvent.VK_W];
+        secondKeys[KeyEvent.VK_RIGHT] = keys[KeyEvent.VK_D];
+        link.send(rollback, 1, InputRecording.mask(secondKeys));
+        rollback.advance();
+        if (world.gameOver) {
+            // Ended, perhaps on a guess: no more ticks will be played to bring the late input
+            // in, so what is still on the link decides now whether the game really is over
+            link.flush(rollback, 1);
+            rollback.catchUp();
+        }
+    }
+
+    // Over for good: with late input the world can end on a guess that the real input undoes,
+    // so a two-player game only counts as over once every tick has been played with real input
+    private boolean isGameOver() {
+        return world.gameOver && (rollback == null || rollback.settled());
+    }
+
+    // A new game: every game gets its own seed, derived from the run seed and the game number
+    private void startGame() {
+        world.reset(options.seed + gamesPlayed);
+        gamesPlayed++;
+        resetRollback();
+        if (options.endless) {
+            System.out.println("Endless run, seed " + world.seed());
+        }
+        // Recordings hold one player's keys
+        if (options.recordPath != null && options.players == 1) {
+            recording = new InputRecording(world.seed(), options.endless);
+        }
+    }
+
+    // With --save: picks up the game the file holds, unless there is none or it had ended
+    private void resumeSnapshot() {
+        try {
+            snapshot = WorldSnapshot.open(Paths.get(options.savePath));
+            ticksUntilSave = options.autosaveSeconds * World.TICKS_PER_SECOND;
+            long start = System.nanoTime();
+            if (snapshot.restore(world)) {
+                if (world.gameOver) {
+                    System.out.println("The saved game had ended, starting a new one");
+                    startGame();
+                    return;
+                }
+                System.out.printf("Resumed level %d, score %d from %s (%d bytes in %.2f ms)%n", world.level,
+                        world.score, options.savePath, snapshot.savedBytes(), (System.nanoTime() - start) / 1e6);
+                resetRollback();
+                // A recording has to start from the seed, so a resumed game is not recorded
+                recording = null;
+                gameRunning = true;
+                soundManager.playLevelMusic(world.level);
+            }
+        } catch (IOException e) {
+            System.out.println("Not resuming: " + e.getMessage());
+            if (snapshot != null) {
+                startGame(); // The failed restore may have left the world half loaded
+            }
+        }
+    }
+
+    private void saveSnapshot() {
+        ticksUntilSave = options.autosaveSeconds * World.TICKS_PER_SECOND;
+        try {
+            snapshot.save(world);
+        } catch (IOException e) {
+            System.out.println("Could not save the game, autosave is off: " + e.getMessage());
+            snapshot = null;
+        }
+    }
+
+    private void resetRollback() {
+        if (rollback != null) {
+            rollback.reset();
+            link.reset();
+        }
+    }
+
+    private void openHighScores() {
+        Path path = Paths.get(options.scoresPath != null ? options.scoresPath : DEFAULT_SCORES_FILE);
+        try {
+            highScores = HighScores.open(path);
+        } catch (IOException e) {
+            System.out.println("High scores are off: " + e.getMessage());
+            return;
+        }
+        // Games still queued when the window closes are written before the JVM goes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                highScores.close();
+            } catch (IOException e) {
+                System.out.println("Could not write high scores: " + e.getMessage());
+            }
+        }, "high-scores-close"));
+    }
+
+    private void saveRecording() {
+        recording.finish(world.score, world.level);
+        try {
+            Path path = Paths.get(options.recordPath);
+            recording.save(path);
+            System.out.printf("Recorded %d ticks (%d runs, %d bytes) to %s%n",
+                    recording.ticks(), recording.runCount(), Files.size(path), path);
+        } catch (IOException e) {
+            System.out.println("Could not save the recording: " + e.getMessage());
+        }
+        recording = null;
+    }
+
+    private void requestFrame(double alpha) {
+        renderAlpha = alpha;
+        if (canvas != null) {
+            canvas.renderFrame();
+        } else {
+            repaint();
+        }
+    }
+
+    // Runs on the loop thread once every required asset has been decoded
+    private void onRequiredAssetsLoaded() {
+        buildBackgroundLayers();
+
+        world = new World(GROUND_Y, SCREEN_WIDTH / options.players, options.endless, events, options.players);
+        world.profiler = profiler;
+        if (options.players > 1) {
+            rollback = new Rollback(world);
+            rollback.setProfiler(profiler);
+            link = new LoopbackLink(options.inputDelayTicks);
+            viewImages = new BufferedImage[options.players];
+            viewGraphics = new Graphics2D[options.players];
+            tagImages = new BufferedImage[options.players];
+            for (int view = 0; view < options.players; view++) {
+                viewImages[view] = SpriteAtlas.createCompatibleImage(SCREEN_WIDTH / options.players, SCREEN_HEIGHT,
+                        Transparency.OPAQUE);
+                viewGraphics[view] = viewImages[view].createGraphics();
+                String tag = PLAYER_TAGS[view];
+                tagImages[view] = SpriteAtlas.painted("tag:" + tag, TAG_SIZE, TAG_SIZE, g -> {
+                    g.setColor(Color.WHITE);
+                    g.setFont(STATS_FONT);
+                    g.drawString(tag, 0, TAG_SIZE - 4);
+                });
+            }
+        }
+        if (!options.serialUpdate) {
+            world.updatePool = ForkJoinPool.commonPool();
+        }
+        startGame();
+        if (options.savePath != null) {
+            resumeSnapshot();
+            // Closing the window saves too, so at most the last few ticks are lost
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                synchronized (worldLock) {
+                    if (snapshot != null && gameRunning && !world.gameOver) {
+                        saveSnapshot();
+                    }
+                }
+            }, "snapshot-save-final"));
+        }
+        // The first game has built every atlas it draws from; only the scaled copies stay
+        Assets.releaseImages();
+        assetsReady = true;
+        Assets.printReport();
+    }
+
+    // Runs on the bus's audio thread, so loading and crossfading music stays out of the tick
+    private void playEventSound(GameEvent event) {
+        switch (event.type) {
+            case FRUIT_COLLECTED:
+            case POWER_UP_COLLECTED:
+                soundManager.playCollectSound();
+                break;
+            case DAMAGE_TAKEN:
+                soundManager.playHitSound();
+                break;
+            case LEVEL_UP:
+                soundManager.playLevelUpSound();
+                soundManager.playLevelMusic(event.level);
+                break;
+            case GAME_OVER:
+                soundManager.playGameOverSound();
+                break;
+            case JUMP:
+                soundManager.playJumpSound();
+                break;
+        }
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (canvas == null) {
+            paintFrame(g);
+        }
+    }
+
+    // Shared by the passive (paintComponent) and active (GameCanvas) paths
+    void paintFrame(Graphics g) {
+        long frameStart = System.nanoTime();
+        long profileStart = profiler.begin();
+        if (canvas != null) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+        }
+
+        synchronized (worldLock) {
+            render(g, (float) renderAlpha);
+        }
+
+        frameStats.record(System.nanoTime() - frameStart);
+        profiler.end(Profiler.Span.FRAME, profileStart);
+        if (showStats) {
+            drawStats(g);
+        }
+        if (profiler.isOverlayShown()) {
+            drawProfile(g);
+        }
+    }
+
+    private void render(Graphics g, float alpha) {
+        if (!gameRunning) {
+            drawStartScreen(g);
+            return;
+        }
+
+        if (isGameOver()) {
+            drawGameOverScreen(g);
+            return;
+        }
+
+        // One view per player, side by side
+        int views = world.players.length;
+        int viewWidth = SCREEN_WIDTH / views;
+        if (views == 1) {
+            drawView(g, 0, viewWidth, alpha);
+        } else {
+            for (int view = 0; view < views; view++) {
+                drawView(viewGraphics[view], view, viewWidth, alpha);
+                g.drawImage(viewImages[view], view * viewWidth, 0, null);
+            }
+            g.setColor(Color.BLACK);
+            g.fillRect(viewWidth - 1, 0, 2, SCREEN_HEIGHT);
+        }
+
+        long passStart = profiler.begin();
+        drawUI(g);
+        profiler.end(Profiler.Span.HUD, passStart);
+    }
+
+    // The world through one player's camera, in view coordinates
+    private void drawView(Graphics g, int view, int viewWidth, float alpha) {
+        // Draw between the last two ticks so motion stays smooth at any frame rate
+        int cameraX = world.previousCameras[view]
+                + Math.round((world.cameras[view] - world.previousCameras[view]) * alpha);
+        EntityStore<Obstacle> obstacles = world.obstacles;
+        EntityStore<Fruit> fruits = world.fruits;
+        EntityStore<PowerUp> powerUps = world.powerUps;
+        EntityStore<WildAnimal> animals = world.animals;
+
+        long passStart = profiler.begin();
+        drawBackground(g, cameraX, viewWidth);
+        profiler.end(Profiler.Span.BACKGROUND, passStart);
+
+        passStart = profiler.begin();
+        // Only what overlaps the view, found through each store's grid; the slack covers
+        // interpolated animals and the power-up float
+        int minX = cameraX - DRAW_SLACK;
+        int maxX = cameraX + viewWidth + DRAW_SLACK;
+        int count = obstacles.collectVisible(minX, maxX);
+        for (int i = 0; i < count; i++) {
+            obstacles.get(obstacles.visibleSlot(i)).draw(g, cameraX);
+        }
+
+        count = fruits.collectVisible(minX, maxX);
+        for (int i = 0; i < count; i++) {
+            fruits.get(fruits.visibleSlot(i)).draw(g, cameraX);
+        }
+
+        count = powerUps.collectVisible(minX, maxX);
+        for (int i = 0; i < count; i++) {
+            powerUps.get(powerUps.visibleSlot(i)).draw(g, cameraX);
+        }
+
+        count = animals.collectVisible(minX, maxX);
+        for (int i = 0; i < count; i++) {
+            animals.get(animals.visibleSlot(i)).draw(g, cameraX, alpha);
+        }
+
+        for (int i = 0; i < world.players.length; i++) {
+            Player player = world.players[i];
+            if (player.lives > 0) {
+                player.draw(g, cameraX, alpha);
+                if (world.players.length > 1) {
+                    int x = player.prevX + Math.round((player.x - player.prevX) * alpha) - cameraX;
+                    int y = player.prevY + Math.round((player.y - player.prevY) * alpha);
+                    g.drawImage(tagImages[i], x + player.width / 2 - 8, y - 4 - TAG_SIZE, null);
+                }
+            }
+        }
+        profiler.end(Profiler.Span.ENTITIES, passStart);
+    }
+
+    private void drawStats(Graphics g) {
+        FrameStats tickStats = gameLoop.tickStats();
+        g.setColor(STATS_PANEL);
+        g.fillRect(SCREEN_WIDTH - 330, SCREEN_HEIGHT - 124, 325, 119);
+        g.setColor(Color.WHITE);
+        g.setFont(STATS_FONT);
+        g.drawString(canvas != null ? "active rendering (BufferStrategy)" : "passive rendering (JPanel)",
+                SCREEN_WIDTH - 325, SCREEN_HEIGHT - 108);
+        g.drawString(rollback == null ? "rollback  off (one player)" : String.format(
+                "rollback  %d delay  %d rollbacks  %d ticks last", link.delay(), rollback.rollbacks(),
+                rollback.lastReplayed()), SCREEN_WIDTH - 325, SCREEN_HEIGHT - 92);
+        g.drawString(String.format("events  %d fruit  %d hit  %d jump  %d lost",
+                eventCounts.get(GameEvent.Type.FRUIT_COLLECTED.ordinal()),
+                eventCounts.get(GameEvent.Type.DAMAGE_TAKEN.ordinal()),
+                eventCounts.get(GameEvent.Type.JUMP.ordinal()), events.droppedCount()),
+                SCREEN_WIDTH - 325, SCREEN_HEIGHT - 76);
+        g.drawString(String.format("animals  %d active  %d dormant", world.activeAnimals(),
+                world.animals.size() - world.activeAnimals()), SCREEN_WIDTH - 325, SCREEN_HEIGHT - 60);
+        g.drawString(String.format("pool  %d hits  %d misses  %d idle", world.poolHits(), world.poolMisses(), world.poolIdle()),
+                SCREEN_WIDTH - 325, SCREEN_HEIGHT - 44);
+        g.drawString(String.format("FPS %4d  frame %5.2f ms (max %5.2f)", frameStats.perSecond(),
+                frameStats.averageMs(), frameStats.maxMs()), SCREEN_WIDTH - 325, SCREEN_HEIGHT - 28);
+        g.drawString(String.format("TPS %4d  tick  %5.2f ms (max %5.2f) %dB", tickStats.perSecond(),
+                tickStats.averageMs(), tickStats.maxMs(), tickStats.averageBytes()), SCREEN_WIDTH - 325, SCREEN_HEIGHT - 12);
+    }
+
+    // Last second of each profiled span, bottom left so it does not cover the F3 stats
+    private void drawProfile(Graphics g) {
+        profiler.summary(profileRows);
+        Profiler.Span[] spans = Profiler.Span.values();
+        int top = SCREEN_HEIGHT - 29 - 16 * spans.length;
+        g.setColor(STATS_PANEL);
+        g.fillRect(5, top, 330, 24 + 16 * spans.length);
+        g.setColor(Color.WHITE);
+        g.setFont(STATS_FONT);
+        g.drawString(PROFILE_HEADER, 10, top + 16);
+        for (int i = 0; i < spans.length; i++) {
+            double[] row = profileRows[i];
+            g.drawString(String.format("%-11s %5.0f %7.3f %7.3f %7.3f", spans[i].label, row[Profiler.PER_SECOND],
+                    row[Profiler.P50_MS], row[Profiler.P99_MS], row[Profiler.MAX_MS]), 10, top + 32 + 16 * i);
+        }
+    }
+
+    private void buildBackgroundLayers() {
+        BufferedImage backgroundImage = SpriteAtlas.scaled("images/background.png", SCREEN_WIDTH, SCREEN_HEIGHT);
+        if (backgroundImage != null) {
+            skyLayer = new ParallaxLayer(SCREEN_WIDTH, 0, SCREEN_HEIGHT, 4, Transparency.OPAQUE,
+                    g -> g.drawImage(backgroundImage, 0, 0, null));
+        } else {
+            skyLayer = new ParallaxLayer(SCREEN_WIDTH, 0, SCREEN_HEIGHT, 0, Transparency.OPAQUE, g -> {
+                g.setPaint(SKY_GRADIENT);
+                g.fillRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+            });
+        }
+
+        cloudLayer = new ParallaxLayer(CLOUD_PERIOD, 0, 170, 3, Transparency.TRANSLUCENT, g -> {
+            g.setColor(Color.WHITE);
+            for (int i = 0; i < CLOUD_X.length; i++) {
+                drawCloud(g, CLOUD_X[i], CLOUD_Y[i]);
+            }
+        });
+
+        int groundHeight = SCREEN_HEIGHT - GROUND_Y;
+        BufferedImage groundImage = SpriteAtlas.scaled("images/ground1.jpg", SCREEN_WIDTH, groundHeight);
+        groundLayer = new ParallaxLayer(SCREEN_WIDTH, GROUND_Y, groundHeight, 2, Transparency.OPAQUE, g -> {
+            if (groundImage != null) {
+                g.drawImage(groundImage, 0, 0, null);
+                return;
+            }
+            g.setColor(GRASS);
+            g.fillRect(0, 0, SCREEN_WIDTH, groundHeight);
+
+            g.setColor(FOREST_GREEN);
+            for (int i = 0; i < SCREEN_WIDTH; i += 10) {
+                g.drawLine(i, 0, i, 5);
+            }
+
+            g.setColor(Color.YELLOW);
+            for (int i = 0; i < SCREEN_WIDTH; i += 50) {
+                g.fillOval(i, 10, 6, 6);
+            }
+        });
+    }
+
+    private void drawBackground(Graphics g, int cameraX, int viewWidth) {
+        skyLayer.draw(g, cameraX, viewWidth);
+        cloudLayer.draw(g, cameraX, viewWidth);
+        groundLayer.draw(g, cameraX, viewWidth);
+    }
+
+    private void drawCloud(Graphics g, int x, int y) {
+        g.fillOval(x, y, 60, 30);
+        g.fillOval(x + 20, y - 10, 80, 40);
+        g.fillOval(x + 60, y, 60, 30);
+    }
+
+    private void drawUI(Graphics g) {
+        drawPlayerPanel(g, hudPanel, world.player, 0);
+        if (world.players.length > 1) {
+            drawPlayerPanel(g, secondHudPanel, world.players[1], SCREEN_WIDTH / 2);
+        }
+
+        int progressWidth = (int) (150 * world.levelProgress());
+        Graphics2D bar = progressBar.redrawIfChanged(progressWidth);
+        if (bar != null) {
+            drawProgressBar(bar, progressWidth);
+            bar.dispose();
+        }
+        progressBar.draw(g);
+    }
+
+    private void drawPlayerPanel(Graphics g, CachedLayer layer, Player player, int left) {
+        int boosts = (player.hasSpeedBoost ? 1 : 0) | (player.hasJumpBoost ? 2 : 0);
+        // Score in the high half; level, lives and boost flags packed below it
+        long panelKey = (long) world.score << 32 | (world.level & 0xFFFFL) << 16 | (player.lives & 0xFF) << 8 | boosts;
+        Graphics2D panel = layer.redrawIfChanged(panelKey);
+        if (panel != null) {
+            drawHudPanel(panel, player, left);
+            panel.dispose();
+        }
+        layer.draw(g);
+    }
+
+    // Score and level are shared; lives and boosts are the player's whose view it sits in
+    private void drawHudPanel(Graphics g, Player player, int left) {
+        g.setColor(HUD_PANEL);
+        g.fillRect(left + 5, 5, 200, 100);
+
+        g.setColor(Color.WHITE);
+        g.setFont(HUD_FONT);
+        g.drawString(scoreLabel.of(world.score), left + 10, 30);
+        g.drawString(levelLabel.of(world.level), left + 10, 55);
+        g.drawString(livesLabel.of(player.lives), left + 10, 80);
+
+        if (player.hasSpeedBoost) {
+            g.setColor(Color.CYAN);
+            g.drawString("SPEED BOOST!", left + 10, 105);
+        }
+        if (player.hasJumpBoost) {
+            g.setColor(Color.GREEN);
+            g.drawString("JUMP BOOST!", left + 10, 105);
+        }
+    }
+
+    private void drawProgressBar(Graphics g, int progressWidth) {
+        g.setColor(Color.GRAY);
+        g.fillRect(SCREEN_WIDTH - 160, 10, 150, 15);
+        g.setColor(Color.GREEN);
+        g.fillRect(SCREEN_WIDTH - 160, 10, progressWidth, 15);
+        g.setColor(Color.WHITE);
+        g.setFont(HUD_SMALL_FONT);
+        g.drawString("Level Progress", SCREEN_WIDTH - 160, 40);
+    }
+
+    private void drawStartScreen(Graphics g) {
+        g.setColor(FOREST_GREEN);
+        g.fillRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+
+        g.setColor(Color.WHITE);
+        g.setFont(TITLE_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        String title = "FOREST RUNNER";
+        int x = (SCREEN_WIDTH - fm.stringWidth(title)) / 2;
+        g.drawString(title, x, 200);
+
+        g.setFont(SUBTITLE_FONT);
+        fm = g.getFontMetrics();
+        String subtitle = "Collect fruits and avoid wild animals!";
+        x = (SCREEN_WIDTH - fm.stringWidth(subtitle)) / 2;
+        g.drawString(subtitle, x, 280);
+
+        g.setFont(INSTRUCTION_FONT);
+        fm = g.getFontMetrics();
+        String[] instructions = options.players > 1 ? TWO_PLAYER_INSTRUCTIONS : INSTRUCTIONS;
+        for (int i = 0; i < instructions.length; i++) {
+            String line = instructions[i];
+            if (i == 0 && !assetsReady) {
+                line = "Loading... " + (int) (assetLoader.requiredProgress() * 100) + "%";
+            }
+            x = (SCREEN_WIDTH - fm.stringWidth(line)) / 2;
+            g.drawString(line, x, 320 + i * 25);
+        }
+
+        // Loading bar, kept until optional assets such as music have streamed in too
+        if (!assetLoader.isFullyLoaded()) {
+            int barWidth = 300;
+            int barX = (SCREEN_WIDTH - barWidth) / 2;
+            g.setColor(LOADING_TRACK);
+            g.fillRect(barX, 440, barWidth, 10);
+            g.setColor(Color.WHITE);
+            g.fillRect(barX, 440, (int) (barWidth * assetLoader.overallProgress()), 10);
+        }
+    }
+
+    private void drawGameOverScreen(Graphics g) {
+        g.setColor(GAME_OVER_SHADE);
+        g.fillRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+
+        g.setColor(Color.WHITE);
+        g.setFont(TITLE_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        String gameOverText = "GAME OVER";
+        int x = (SCREEN_WIDTH - fm.stringWidth(gameOverText)) / 2;
+        g.drawString(gameOverText, x, 250);
+
+        g.setFont(SUBTITLE_FONT);
+        fm = g.getFontMetrics();
+        String finalScore = finalScoreLabel.of(world.score);
+        x = (SCREEN_WIDTH - fm.stringWidth(finalScore)) / 2;
+        g.drawString(finalScore, x, 300);
+
+        String levelReached = levelReachedLabel.of(world.level);
+        x = (SCREEN_WIDTH - fm.stringWidth(levelReached)) / 2;
+        g.drawString(levelReached, x, 330);
+
+        String standing = standing();
+        x = (SCREEN_WIDTH - fm.stringWidth(standing)) / 2;
+        g.drawString(standing, x, 360);
+
+        String restart = "Press SPACE to restart";
+        x = (SCREEN_WIDTH - fm.stringWidth(restart)) / 2;
+        g.drawString(restart, x, 410);
+    }
+
+    // "#3 of 120 games, better than 97%" for the game just lost. The table is read without
+    // locking and catches up with the game a moment after it ends, so the text follows it.
+    private String standing() {
+        HighScores.Table table = highScores == null ? HighScores.Table.EMPTY : highScores.table();
+        if (table != standingTable || world.score != standingScore) {
+            standingTable = table;
+            standingScore = world.score;
+            standingText = table.games() == 0 ? "" : String.format("#%d of %d games, better than %.0f%%, best %d",
+                    table.rankOf(world.score), table.games(), table.percentBelow(world.score), table.top(0).score);
+        }
+        return standingText;
+    }
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        int keyCode = e.getKeyCode();
+
+        if (keyCode == KeyEvent.VK_F3) {
+            showStats = !showStats;
+            return;
+        }
+        if (keyCode == KeyEvent.VK_F4) {
+            profiler.setOverlayShown(!profiler.isOverlayShown());
+            return;
+        }
+
+        synchronized (worldLock) {
+            handleKeyPressed(keyCode);
+        }
+    }
+
+    private void handleKeyPressed(int keyCode) {
+        // Nothing to control until the player sprite and level exist
+        if (!assetsReady) {
+            return;
+        }
+
+        if (!gameRunning && keyCode == KeyEvent.VK_SPACE) {
+            gameRunning = true;
+            return;
+        }
+        if (isGameOver() && keyCode == KeyEvent.VK_SPACE) {
+            startGame(); // Mengatur ulang skor, level dan posisi player.y
+            soundManager.playLevelMusic(world.level);
+            return;
+        }
+
+        if (keyCode < keys.length) {
+            keys[keyCode] = true;
+        }
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        int keyCode = e.getKeyCode();
+        synchronized (worldLock) {
+            if (keyCode < keys.length) {
+                keys[keyCode] = false;
+            }
+        }
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {}
+
+    public static void main(String[] args) throws IOException {
+        GameOptions options = GameOptions.parse(args);
+        if (options.replayPath != null) {
+            System.setProperty("java.awt.headless", "true");
+            System.exit(Replay.run(options.replayPath, options.replayRepeats) ? 0 : 1);
+        }
+        if (options.batchGames > 0) {
+            System.setProperty("java.awt.headless", "true");
+            BatchSimulator batch = new BatchSimulator(options.batchGames, options.bot, options.seed,
+                    options.maxTicks, options.endless);
+            HighScores highScores = options.scoresPath == null ? null : HighScores.open(Paths.get(options.scoresPath));
+            batch.recordTo(highScores);
+            batch.printReport(batch.run(options.threads), options.threads);
+            if (highScores != null) {
+                highScores.close();
+                HighScores.Table table = highScores.table();
+                System.out.printf("High scores in %s: %d games, p50 %d, p90 %d, p99 %d, best %d%n", options.scoresPath,
+                        table.games(), table.scoreAtPercentile(50), table.scoreAtPercentile(90),
+                        table.scoreAtPercentile(99), table.topCount() == 0 ? 0 : table.top(0).score);
+            }
+            return;
+        }
+
+        JFrame frame = new JFrame("Forest Runner");
+        ForestRunner game = new ForestRunner(options);
+
+        frame.add(game);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(false);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package forestrunner;
+
+// Rolling timing stats for one kind of work (ticks or frames), published once per second
+final class FrameStats {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowStart = System.nanoTime();
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long totalBytes;
+
+    // Last completed window, readable from any thread
+    private volatile int perSecond;
+    private volatile double averageMs;
+    private volatile double maxMs;
+    private volatile long averageBytes;
+
+    void record(long nanos) {
+        record(nanos, 0);
+    }
+
+    // bytes: heap allocated while doing the work, from AllocationCounter
+    synchronized void record(long nanos, long bytes) {
+        count++;
+        totalNanos += nanos;
+        totalBytes += bytes;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            perSecond = (int) Math.round(count * (double) WINDOW_NANOS / elapsed);
+            averageMs = totalNanos / (double) count / 1_000_000.0;
+            maxMs = maxNanos / 1_000_000.0;
+            averageBytes = totalBytes / count;
+            count = 0;
+            totalNanos = 0;
+            totalBytes = 0;
+            maxNanos = 0;
+            windowStart = now;
+        }
+    }
+
+    int perSecond() {
+        return perSecond;
+    }
+
+    double averageMs() {
+        return averageMs;
+    }
+
+    double maxMs() {
+        return maxMs;
+    }
+
+    long averageBytes() {
+        return averageBytes;
+    }
+}
@@ -0,0 +1,61 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+class Fruit extends Entity {
+    private static final Color[] COLORS = {Color.RED, Color.ORANGE, new Color(255, 20, 147), Color.YELLOW};
+    Color color;
+
+    // Image variables
+    private BufferedImage image; // Pre-scaled, shared with every other instance
+
+    public Fruit() {
+        super(20, 20);
+        loadImage();
+    }
+
+    public Fruit reset(int x, int y, GameRandom random) {
+        this.x = x;
+        this.y = y;
+        // Random fruit colors
+        color = COLORS[random.nextInt(COLORS.length)];
+        return this;
+    }
+
+    private void loadImage() {
+        image = SpriteAtlas.scaled("images/apple.png", width, height);
+    }
+
+    // Snapshot state, in the order WorldSnapshot's layout lists it
+    void writeTo(ByteBuffer out) {
+        int colorIndex = 0;
+        while (COLORS[colorIndex] != color) {
+            colorIndex++;
+        }
+        out.putInt(x).putInt(y).put((byte) colorIndex);
+    }
+
+    public Fruit readFrom(ByteBuffer in) {
+        this.x = in.getInt();
+        this.y = in.getInt();
+        this.color = COLORS[in.get()];
+        return this;
+    }
+
+    public void draw(Graphics g, int cameraX) {
+        int screenX = x - cameraX;
+        if (image != null) {
+            // Draw image
+            g.drawImage(image, screenX, y, null);
+        } else {
+            // Fallback: draw simple oval
+            g.setColor(color);
+            g.fillOval(screenX, y, width, height);
+            // Simple highlight
+            g.setColor(Color.WHITE);
+            g.fillOval(screenX + 4, y + 4, 6, 6);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+// Active rendering target: the game loop draws straight into a page-flipped BufferStrategy
+// instead of waiting for Swing to schedule paintComponent on the EDT.
+class GameCanvas extends Canvas {
+    private static final long serialVersionUID = 1L;
+
+    private final Consumer<Graphics> painter;
+    private BufferStrategy strategy;
+
+    GameCanvas(int width, int height, Consumer<Graphics> painter) {
+        this.painter = painter;
+        setPreferredSize(new Dimension(width, height));
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    // Called from the game loop thread
+    void renderFrame() {
+        if (strategy == null) {
+            if (!isDisplayable()) {
+                return; // Not on screen yet
+            }
+            // Two buffers: flips the page when the pipeline supports it, blits from an accelerated back buffer otherwise
+            createBufferStrategy(2);
+            strategy = getBufferStrategy();
+            System.out.println("Active rendering: page flipping " +
+                    (strategy.getCapabilities().isPageFlipping() ? "enabled" : "not available, using blit"));
+        }
+
+        // Redraw until the accelerated surfaces survive the whole frame
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    painter.accept(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
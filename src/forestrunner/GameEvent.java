@@ -0,0 +1,15 @@
+package forestrunner;
+
+// One slot of the EventBus ring. The bus owns every instance and refills it in place, so
+// publishing allocates nothing; a handler reads the fields during onEvent and must not keep the
+// object, which is overwritten once the ring comes round again.
+final class GameEvent {
+    enum Type {
+        FRUIT_COLLECTED, POWER_UP_COLLECTED, DAMAGE_TAKEN, LEVEL_UP, GAME_OVER, JUMP
+    }
+
+    long sequence;       // Position in the stream, counting from 0
+    Type type;
+    World.Hazard hazard; // DAMAGE_TAKEN only
+    int level;           // LEVEL_UP only: the level just reached
+}
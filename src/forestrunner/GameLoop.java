@@ -0,0 +1,78 @@
+package forestrunner;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+// Fixed-timestep loop on its own thread. The simulation always advances in whole ticks
+// from an accumulator, while rendering runs as often as the frame cap allows and gets
+// the fraction of a tick left over so it can interpolate between the last two states.
+final class GameLoop implements Runnable {
+    // Never try to catch up more than this much time after a stall (debugger, GC, window drag)
+    private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+    private final long tickNanos;
+    private final long frameNanos;
+    private final Runnable tick;
+    private final DoubleConsumer render;
+    private final FrameStats tickStats = new FrameStats();
+    private volatile boolean running;
+    private Thread thread;
+
+    // maxFps <= 0 renders uncapped
+    GameLoop(int ticksPerSecond, int maxFps, Runnable tick, DoubleConsumer render) {
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = maxFps > 0 ? 1_000_000_000L / maxFps : 0;
+        this.tick = tick;
+        this.render = render;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    FrameStats tickStats() {
+        return tickStats;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_CATCH_UP_NANOS);
+            previous = now;
+
+            while (accumulator >= tickNanos) {
+                long tickStart = System.nanoTime();
+                long allocatedBefore = AllocationCounter.currentThreadBytes();
+                tick.run();
+                tickStats.record(System.nanoTime() - tickStart, AllocationCounter.currentThreadBytes() - allocatedBefore);
+                accumulator -= tickNanos;
+            }
+
+            if (frameNanos == 0 || now >= nextFrame) {
+                render.accept((double) accumulator / tickNanos);
+                // Stay on the frame grid unless we fell more than a frame behind
+                nextFrame = Math.max(nextFrame + frameNanos, now);
+            }
+
+            long untilTick = tickNanos - accumulator;
+            long wait = frameNanos == 0 ? 0 : Math.min(untilTick, nextFrame - System.nanoTime());
+            if (wait > 1_000_000L) {
+                LockSupport.parkNanos(wait - 500_000L);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package forestrunner;
+
+import java.util.Locale;
+
+// Command-line switches for the game
+final class GameOptions {
+    int maxFps = 60;               // --fps=N, 0 renders uncapped
+    boolean activeRendering;       // --render=active | --render=passive
+    boolean showStats;             // --show-fps
+    boolean endless;               // --endless
+    long seed = System.nanoTime(); // --seed=N, makes an endless run reproducible
+    int voices = 16;               // --voices=N, sounds that can play at once
+    int audioBufferFrames = 1024;  // --audio-buffer=N, mixer block in frames; smaller is lower latency
+    AudioMixer.VoiceStealing voiceStealing = AudioMixer.VoiceStealing.OLDEST; // --voice-steal=oldest|quietest|none
+    String recordPath;             // --record=FILE, saves each finished game's input
+    String replayPath;             // --replay=FILE, plays a recording back headless and exits
+    int replayRepeats = 1;         // --repeat=N, replays the recording N times (warm-up for timing)
+    int batchGames;                // --batch=N, plays N headless bot games and exits
+    String bot = "runner";         // --bot=runner|random
+    int threads = Runtime.getRuntime().availableProcessors(); // --threads=N, batch worker threads
+    int maxTicks = 60 * 60 * 10;   // --max-ticks=N, a batch game still alive after this is stopped
+    boolean serialUpdate;          // --serial-update, never splits the entity update phase across threads
+    boolean showProfile;           // --profile, starts with the profiler overlay shown (F4 toggles it)
+    String profilePath;            // --profile-out=FILE, appends span percentiles as CSV, or JSON lines for .json
+    int profileIntervalSeconds = 60; // --profile-interval=N, seconds between rows in the profile file
+    String savePath;               // --save=FILE, resumes the game saved there and keeps saving to it
+    int autosaveSeconds = 5;       // --autosave=N, seconds between saves with --save
+    int players = 1;               // --players=2, split screen: player 1 on the arrows, player 2 on WASD
+    int inputDelayTicks;           // --input-delay=N, delays player 2's input N ticks (up to Rollback.DEPTH)
+                                   // through a loopback link, to exercise rollback
+    String scoresPath;             // --scores=FILE, high-score log; the game uses highscores.dat without it,
+                                   // a batch run records only with it
+
+    static GameOptions parse(String[] args) {
+        GameOptions options = new GameOptions();
+        for (String arg : args) {
+            if (arg.startsWith("--fps=")) {
+                options.maxFps = Integer.parseInt(arg.substring("--fps=".length()));
+            } else if (arg.equals("--render=active")) {
+                options.activeRendering = true;
+            } else if (arg.equals("--render=passive")) {
+                options.activeRendering = false;
+            } else if (arg.equals("--show-fps")) {
+                options.showStats = true;
+            } else if (arg.equals("--endless")) {
+                options.endless = true;
+            } else if (arg.startsWith("--seed=")) {
+                options.seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--voices=")) {
+                options.voices = Math.max(1, Integer.parseInt(arg.substring("--voices=".length())));
+            } else if (arg.startsWith("--audio-buffer=")) {
+                options.audioBufferFrames = Math.max(64, Integer.parseInt(arg.substring("--audio-buffer=".length())));
+            } else if (arg.startsWith("--voice-steal=")) {
+                options.voiceStealing = AudioMixer.VoiceStealing.valueOf(
+                        arg.substring("--voice-steal=".length()).toUpperCase(Locale.ROOT));
+            } else if (arg.startsWith("--record=")) {
+                options.recordPath = arg.substring("--record=".length());
+            } else if (arg.startsWith("--replay=")) {
+                options.replayPath = arg.substring("--replay=".length());
+            } else if (arg.startsWith("--repeat=")) {
+                options.replayRepeats = Math.max(1, Integer.parseInt(arg.substring("--repeat=".length())));
+            } else if (arg.startsWith("--batch=")) {
+                options.batchGames = Math.max(1, Integer.parseInt(arg.substring("--batch=".length())));
+            } else if (arg.startsWith("--bot=")) {
+                options.bot = arg.substring("--bot=".length());
+            } else if (arg.startsWith("--threads=")) {
+                options.threads = Math.max(1, Integer.parseInt(arg.substring("--threads=".length())));
+            } else if (arg.startsWith("--max-ticks=")) {
+                options.maxTicks = Math.max(1, Integer.parseInt(arg.substring("--max-ticks=".length())));
+            } else if (arg.equals("--serial-update")) {
+                options.serialUpdate = true;
+            } else if (arg.equals("--profile")) {
+                options.showProfile = true;
+            } else if (arg.startsWith("--profile-out=")) {
+                options.profilePath = arg.substring("--profile-out=".length());
+            } else if (arg.startsWith("--profile-interval=")) {
+                options.profileIntervalSeconds = Math.max(1, Integer.parseInt(arg.substring("--profile-interval=".length())));
+            } else if (arg.startsWith("--save=")) {
+                options.savePath = arg.substring("--save=".length());
+            } else if (arg.startsWith("--autosave=")) {
+                options.autosaveSeconds = Math.max(1, Integer.parseInt(arg.substring("--autosave=".length())));
+            } else if (arg.startsWith("--players=")) {
+                options.players = Math.max(1, Math.min(2, Integer.parseInt(arg.substring("--players=".length()))));
+            } else if (arg.startsWith("--input-delay=")) {
+                options.inputDelayTicks = Math.max(0, Math.min(Rollback.DEPTH,
+                        Integer.parseInt(arg.substring("--input-delay=".length()))));
+            } else if (arg.startsWith("--scores=")) {
+                options.scoresPath = arg.substring("--scores=".length());
+            } else {
+                System.out.println("Unknown option ignored: " + arg);
+            }
+        }
+        return options;
+    }
+}
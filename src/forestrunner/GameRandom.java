@@ -0,0 +1,57 @@
+package forestrunner;
+
+// The simulation's only source of randomness: a SplitMix64 generator that can be seeded,
+// reseeded and copied around as a single long. World owns one per run and uses it to lay out
+// levels and to seed each entity's own generator when the entity is reset, so the whole run
+// follows from one seed. Unlike java.util.Random it has no atomics and never allocates.
+final class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    // The whole generator; setSeed(state()) on another instance continues the same sequence
+    long state() {
+        return state;
+    }
+
+    long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    // Uniform in [0, bound), bound > 0
+    int nextInt(int bound) {
+        // Lemire's multiply-shift, with rejection so small bounds are not biased
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    // How many tries fail before the first success when each try succeeds with chance p, from a
+    // single draw instead of one per try. StrictMath gives the same answer on every JVM.
+    int nextGeometric(double p) {
+        double u = 1.0 - (nextLong() >>> 11) * 0x1.0p-53; // (0, 1]
+        return (int) Math.min(1 << 30, StrictMath.floor(StrictMath.log(u) / StrictMath.log1p(-p)));
+    }
+
+    // SplitMix64 finalizer: also handy for deriving unrelated seeds from related inputs
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
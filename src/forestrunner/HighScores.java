@@ -0,0 +1,434 @@
+package forestrunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// Local high-score store: an append-only log of finished games and an in-memory index of it.
+// record() may be called from any number of threads at once; it only puts the game on a
+// lock-free queue. One writer thread appends whatever has queued up with a single write and
+// force, so a busy batch run pays for one sync per batch rather than per game, then publishes
+// a new immutable Table. Queries read the latest Table and never lock or wait for the disk.
+//
+// Every record carries a CRC32, and opening the log cuts off a torn record left at the end by
+// a crash. Once the log is mostly games that are not in the top list it is compacted: the top
+// games are kept whole, every other score becomes a (score, count) pair, and the new file is
+// forced and then renamed over the old, so a crash leaves one or the other. One process at a
+// time may use a file.
+//
+// File layout (big-endian): magic "FRHS", version byte, then records: a kind byte, then for a
+// game: score int, level int, seed long, endless byte, time (epoch millis) long; for a score
+// count: score int, count long; then the CRC32 of the kind byte and the fields. Version 1 files
+// wrote the count as an int; they are still read, and the next compaction rewrites them.
+final class HighScores implements Closeable {
+    static final int TOP = 100; // Games kept whole, and the longest list top() answers
+    private static final int MAGIC = 0x46524853; // "FRHS"
+    private static final int VERSION = 2;
+    private static final int VERSION_INT_COUNTS = 1;
+    private static final int HEADER_BYTES = 5;
+    private static final byte KIND_GAME = 1;
+    private static final byte KIND_COUNT = 2;
+    private static final int GAME_BYTES = 1 + 4 + 4 + 8 + 1 + 8 + 4;
+    private static final int COUNT_BYTES = 1 + 4 + 8 + 4;
+    private static final int INT_COUNT_BYTES = 1 + 4 + 4 + 4; // Version 1
+    private static final int COMPACT_MIN_RECORDS = 4096; // Small logs are left alone
+
+    // One finished game, as the top list shows it
+    static final class Entry {
+        final int score;
+        final int level;
+        final long seed;
+        final boolean endless;
+        final long timeMillis;
+
+        Entry(int score, int level, long seed, boolean endless, long timeMillis) {
+            this.score = score;
+            this.level = level;
+            this.seed = seed;
+            this.endless = endless;
+            this.timeMillis = timeMillis;
+        }
+    }
+
+    // Everything recorded up to some moment. Immutable, so any thread may query it.
+    static final class Table {
+        static final Table EMPTY = new Table(new Entry[0], new int[0], new long[0]);
+
+        private final Entry[] top;    // Best first; equal scores in the order they were played
+        private final int[] scores;   // Distinct scores, ascending
+        private final long[] atMost;  // Games scoring scores[i] or less
+
+        private Table(Entry[] top, int[] scores, long[] atMost) {
+            this.top = top;
+            this.scores = scores;
+            this.atMost = atMost;
+        }
+
+        long games() {
+            return atMost.length == 0 ? 0 : atMost[atMost.length - 1];
+        }
+
+        // How many entries top() has, at most TOP
+        int topCount() {
+            return top.length;
+        }
+
+        // rank 0 is the best game
+        Entry top(int rank) {
+            return top[rank];
+        }
+
+        // 1 for a score nobody has beaten
+        long rankOf(int score) {
+            return games() - atMostCount(score) + 1;
+        }
+
+        // Share of games, 0..100, that scored less than score
+        double percentBelow(int score) {
+            long games = games();
+            return games == 0 ? 0 : atMostCount(score - 1) * 100.0 / games;
+        }
+
+        // Lowest score that at least percent (0..100) of games did not beat; 0 without games
+        int scoreAtPercentile(double percent) {
+            long games = games();
+            if (games == 0) {
+                return 0;
+            }
+            long needed = Math.max(1, (long) Math.ceil(games * percent / 100.0));
+            int index = Arrays.binarySearch(atMost, needed);
+            return scores[index >= 0 ? index : -index - 1];
+        }
+
+        private long atMostCount(int score) {
+            int index = Arrays.binarySearch(scores, score);
+            int last = index >= 0 ? index : -index - 2;
+            return last < 0 ? 0 : atMost[last];
+        }
+    }
+
+    private final Path path;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean open = true;
+    private volatile boolean parking; // The writer is about to park; set before its last look at the queue
+    private volatile Table table = Table.EMPTY;
+
+    // Writer thread state
+    private FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    private Entry[] top = new Entry[0];
+    private int[] scores = new int[0];
+    private long[] counts = new long[0];
+    private long records; // In the log right now
+    private int[] batch = new int[256];
+
+    private HighScores(Path path) {
+        this.path = path;
+        this.writer = new Thread(this::writeLoop, "high-scores");
+        writer.setDaemon(true);
+    }
+
+    // Opens (or creates) the log and reads it into the index
+    static HighScores open(Path path) throws IOException {
+        HighScores highScores = new HighScores(path);
+        highScores.load();
+        highScores.writer.start();
+        return highScores;
+    }
+
+    // Any thread; returns at once, the game shows up in table() shortly after
+    void record(int score, int level, long seed, boolean endless) {
+        if (!open) {
+            throw new IllegalStateException("high-score log is closed: " + path);
+        }
+        queue.add(new Entry(score, level, seed, endless, System.currentTimeMillis()));
+        // Waking the writer is a system call; while it is busy it will find the game anyway
+        if (parking) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // The latest index; cheap enough to call every frame
+    Table table() {
+        return table;
+    }
+
+    // Writes out everything recorded so far and closes the log
+    @Override
+    public void close() throws IOException {
+        open = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            boolean last = !open;
+            if (!queue.isEmpty()) {
+                try {
+                    appendQueued();
+                    if (records > COMPACT_MIN_RECORDS && records > 2 * (scores.length + top.length)) {
+                        compact();
+                    }
+                } catch (IOException e) {
+                    System.out.println("Could not write high scores to " + path + ": " + e.getMessage());
+                }
+            }
+            if (last) {
+                return;
+            }
+            // record() adds to the queue and then reads parking, so one side always sees the other
+            parking = true;
+            if (queue.isEmpty() && open) {
+                LockSupport.park(this);
+            }
+            parking = false;
+        }
+    }
+
+    // One write and one force for everything queued, then one new Table
+    private void appendQueued() throws IOException {
+        int batchSize = 0;
+        buffer.clear();
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (buffer.remaining() < GAME_BYTES) {
+                writeBuffer(channel);
+            }
+            putGame(entry);
+            addToTop(entry);
+            if (batchSize == batch.length) {
+                batch = Arrays.copyOf(batch, batchSize * 2);
+            }
+            batch[batchSize++] = entry.score;
+            records++;
+        }
+        writeBuffer(channel);
+        channel.force(false);
+        Arrays.sort(batch, 0, batchSize);
+        mergeScores(batch, null, batchSize);
+        publish();
+    }
+
+    private void writeBuffer(FileChannel target) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putGame(Entry entry) {
+        int start = buffer.position();
+        buffer.put(KIND_GAME).putInt(entry.score).putInt(entry.level).putLong(entry.seed)
+                .put((byte) (entry.endless ? 1 : 0)).putLong(entry.timeMillis);
+        putCrc(start);
+    }
+
+    private void putCount(int score, long count) {
+        int start = buffer.position();
+        buffer.put(KIND_COUNT).putInt(score).putLong(count);
+        putCrc(start);
+    }
+
+    private void putCrc(int start) {
+        crc.reset();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    // Keeps the TOP best; a newer game only passes an older one with a higher score
+    private void addToTop(Entry entry) {
+        if (top.length == TOP && entry.score <= top[TOP - 1].score) {
+            return;
+        }
+        int at = top.length;
+        while (at > 0 && top[at - 1].score < entry.score) {
+            at--;
+        }
+        Entry[] next = Arrays.copyOf(top, Math.min(TOP, top.length + 1));
+        System.arraycopy(top, at, next, at + 1, next.length - at - 1);
+        next[at] = entry;
+        top = next;
+    }
+
+    // Merges sorted scores (repeats allowed) into the distinct scores and their counts; weights
+    // says how many games each stands for, null meaning one each
+    private void mergeScores(int[] sorted, long[] weights, int length) {
+        int[] mergedScores = new int[scores.length + length];
+        long[] mergedCounts = new long[scores.length + length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < scores.length || j < length) {
+            int score = j == length || (i < scores.length && scores[i] <= sorted[j]) ? scores[i] : sorted[j];
+            long count = 0;
+            if (i < scores.length && scores[i] == score) {
+                count += counts[i++];
+            }
+            while (j < length && sorted[j] == score) {
+                count += weights == null ? 1 : weights[j];
+                j++;
+            }
+            mergedScores[size] = score;
+            mergedCounts[size++] = count;
+        }
+        scores = Arrays.copyOf(mergedScores, size);
+        counts = Arrays.copyOf(mergedCounts, size);
+    }
+
+    private void publish() {
+        long[] atMost = new long[counts.length];
+        long running = 0;
+        for (int i = 0; i < counts.length; i++) {
+            running += counts[i];
+            atMost[i] = running;
+        }
+        table = new Table(top, scores, atMost);
+    }
+
+    // Rewrites the log as the top games plus a count for every other score, then swaps it in
+    private void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] rest = counts.clone();
+        for (Entry entry : top) {
+            rest[Arrays.binarySearch(scores, entry.score)]--;
+        }
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            buffer.putInt(MAGIC).put((byte) VERSION);
+            for (Entry entry : top) {
+                if (buffer.remaining() < GAME_BYTES) {
+                    writeBuffer(out);
+                }
+                putGame(entry);
+            }
+            for (int i = 0; i < scores.length; i++) {
+                if (rest[i] > 0) {
+                    if (buffer.remaining() < COUNT_BYTES) {
+                        writeBuffer(out);
+                    }
+                    putCount(scores[i], rest[i]);
+                }
+            }
+            writeBuffer(out);
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // The old log if the rename failed; appending to it stays correct
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        records = top.length;
+        for (long count : rest) {
+            records += count > 0 ? 1 : 0;
+        }
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                channel.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).put((byte) VERSION).flip());
+                channel.force(true);
+            } else {
+                read(size);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        publish();
+    }
+
+    private void read(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(path + " is too large");
+        }
+        ByteBuffer in = ByteBuffer.allocate((int) size);
+        while (in.hasRemaining() && channel.read(in, in.position()) >= 0) {
+            // Positional reads until the buffer is full
+        }
+        in.flip();
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IOException(path + " is not a Forest Runner high-score file");
+        }
+        int version = in.get();
+        if (version != VERSION && version != VERSION_INT_COUNTS) {
+            throw new IOException("Unsupported high-score file version " + version);
+        }
+
+        int[] games = new int[1024];
+        int gameCount = 0;
+        int[] counted = new int[1024];
+        long[] weights = new long[1024];
+        int countedSize = 0;
+        int countBytes = version == VERSION ? COUNT_BYTES : INT_COUNT_BYTES;
+        long good = in.position();
+        while (in.hasRemaining()) {
+            int start = in.position();
+            byte kind = in.get(start);
+            int length = kind == KIND_GAME ? GAME_BYTES : kind == KIND_COUNT ? countBytes : 0;
+            if (length == 0 || in.remaining() < length) {
+                break;
+            }
+            crc.reset();
+            crc.update(in.array(), start, length - 4);
+            if ((int) crc.getValue() != in.getInt(start + length - 4)) {
+                break;
+            }
+            in.get();
+            int score = in.getInt();
+            if (kind == KIND_GAME) {
+                addToTop(new Entry(score, in.getInt(), in.getLong(), in.get() != 0, in.getLong()));
+                if (gameCount == games.length) {
+                    games = Arrays.copyOf(games, gameCount * 2);
+                }
+                games[gameCount++] = score;
+            } else {
+                if (countedSize == counted.length) {
+                    counted = Arrays.copyOf(counted, countedSize * 2);
+                    weights = Arrays.copyOf(weights, countedSize * 2);
+                }
+                if (countedSize > 0 && counted[countedSize - 1] >= score) {
+                    throw new IOException(path + " has score counts out of order");
+                }
+                counted[countedSize] = score;
+                weights[countedSize++] = version == VERSION ? in.getLong() : in.getInt();
+            }
+            in.getInt();
+            records++;
+            good = in.position();
+        }
+        if (good < size) {
+            System.out.printf("Dropped %d damaged bytes at the end of %s%n", size - good, path);
+            channel.truncate(good);
+            channel.force(true);
+        }
+        Arrays.sort(games, 0, gameCount);
+        mergeScores(games, null, gameCount);
+        mergeScores(counted, weights, countedSize); // compact() writes them in ascending order
+    }
+}
@@ -0,0 +1,176 @@
+package forestrunner;
+
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// The keys[] state of every tick of one game, run-length encoded. Only the keys the simulation
+// reads are kept, as a bit mask per tick, and consecutive ticks with the same mask collapse
+// into one run, so a few minutes of play take a few hundred bytes. Together with the run seed
+// this is everything needed to replay a game tick for tick.
+//
+// File layout (big-endian): magic "FRRP", version byte, seed long, endless byte, tick count
+// int, final score int, final level int, run count int, then per run the mask byte followed
+// by the run length as an unsigned varint.
+final class InputRecording {
+    private static final int MAGIC = 0x46525250; // "FRRP"
+    // Bumped whenever the simulation changes what the same input produces; 2: animals draw
+    // their random turns once per heading instead of once per tick; 3: collisions are swept
+    // through the whole tick
+    private static final int VERSION = 3;
+    private static final int[] TRACKED_KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_UP, KeyEvent.VK_RIGHT};
+
+    final long seed;
+    final boolean endless;
+    private byte[] masks = new byte[256];
+    private int[] runs = new int[256];
+    private int runCount;
+    private int ticks;
+    private int finalScore;
+    private int finalLevel;
+
+    // Playback cursor
+    private int playRun;
+    private int playOffset;
+
+    InputRecording(long seed, boolean endless) {
+        this.seed = seed;
+        this.endless = endless;
+    }
+
+    // The keys the simulation reads, as a bit mask (what Rollback and LoopbackLink carry too)
+    static int mask(boolean[] keys) {
+        int mask = 0;
+        for (int i = 0; i < TRACKED_KEYS.length; i++) {
+            if (keys[TRACKED_KEYS[i]]) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    // Sets the keys the simulation reads from a mask; other keys are left alone
+    static void unmask(int mask, boolean[] keys) {
+        for (int i = 0; i < TRACKED_KEYS.length; i++) {
+            keys[TRACKED_KEYS[i]] = (mask & (1 << i)) != 0;
+        }
+    }
+
+    // Appends this tick's keys; allocation-free except when the run table doubles
+    void record(boolean[] keys) {
+        byte mask = (byte) mask(keys);
+        if (runCount > 0 && masks[runCount - 1] == mask) {
+            runs[runCount - 1]++;
+        } else {
+            if (runCount == masks.length) {
+                masks = Arrays.copyOf(masks, runCount * 2);
+                runs = Arrays.copyOf(runs, runCount * 2);
+            }
+            masks[runCount] = mask;
+            runs[runCount] = 1;
+            runCount++;
+        }
+        ticks++;
+    }
+
+    // Stored so a replay can check that it ended the same way
+    void finish(int score, int level) {
+        finalScore = score;
+        finalLevel = level;
+    }
+
+    // Writes the next tick's keys and returns true, or returns false once every tick is used
+    boolean next(boolean[] keys) {
+        if (playRun == runCount) {
+            return false;
+        }
+        unmask(masks[playRun], keys);
+        if (++playOffset == runs[playRun]) {
+            playRun++;
+            playOffset = 0;
+        }
+        return true;
+    }
+
+    void rewind() {
+        playRun = 0;
+        playOffset = 0;
+    }
+
+    int ticks() {
+        return ticks;
+    }
+
+    int runCount() {
+        return runCount;
+    }
+
+    int finalScore() {
+        return finalScore;
+    }
+
+    int finalLevel() {
+        return finalLevel;
+    }
+
+    void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeBoolean(endless);
+            out.writeInt(ticks);
+            out.writeInt(finalScore);
+            out.writeInt(finalLevel);
+            out.writeInt(runCount);
+            for (int i = 0; i < runCount; i++) {
+                out.writeByte(masks[i]);
+                int run = runs[i];
+                while ((run & ~0x7F) != 0) {
+                    out.writeByte((run & 0x7F) | 0x80);
+                    run >>>= 7;
+                }
+                out.writeByte(run);
+            }
+        }
+    }
+
+    static InputRecording load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a Forest Runner recording");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            InputRecording recording = new InputRecording(in.readLong(), in.readBoolean());
+            int ticks = in.readInt();
+            recording.finish(in.readInt(), in.readInt());
+            int runCount = in.readInt();
+            recording.masks = new byte[Math.max(1, runCount)];
+            recording.runs = new int[Math.max(1, runCount)];
+            for (int i = 0; i < runCount; i++) {
+                recording.masks[i] = in.readByte();
+                int run = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int b = in.readUnsignedByte();
+                    run |= (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) {
+                        break;
+                    }
+                }
+                recording.runs[i] = run;
+            }
+            recording.runCount = runCount;
+            recording.ticks = ticks;
+            return recording;
+        }
+    }
+}
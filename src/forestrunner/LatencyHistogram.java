@@ -0,0 +1,94 @@
+package forestrunner;
+
+import java.util.Arrays;
+
+// Fixed-size log-linear histogram of durations in nanoseconds, in the style of HdrHistogram:
+// every power of two is split into SUB_BUCKETS linear buckets, so any recorded value is
+// reported within 1/SUB_BUCKETS (about 1.6%) of itself from 1 ns up to MAX_NANOS. Recording
+// is a couple of shifts and an array increment with no allocation. Not thread-safe.
+final class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final long MAX_NANOS = (1L << 36) - 1; // About 68 s; longer spans are clamped
+    private static final int BUCKETS = indexOf(MAX_NANOS) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_NANOS));
+        counts[indexOf(value)]++;
+        count++;
+        totalNanos += value;
+        if (value > maxNanos) {
+            maxNanos = value;
+        }
+    }
+
+    // Adds everything recorded in other to this histogram
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    long count() {
+        return count;
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    double meanNanos() {
+        return count == 0 ? 0 : totalNanos / (double) count;
+    }
+
+    // Smallest bucket value that at least quantile (0..1) of the recorded values fall under.
+    // Reported as the top of the bucket, never above the true maximum.
+    long percentileNanos(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    // Values below 2 * SUB_BUCKETS get a bucket each; above that, bucket width doubles with
+    // every power of two while the number of buckets per power stays SUB_BUCKETS
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long sub = index - ((long) shift << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+}
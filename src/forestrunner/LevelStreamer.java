@@ -0,0 +1,214 @@
+package forestrunner;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Endless-run level source. The world is cut into fixed-width chunks that are generated a
+// little ahead of the camera and dropped once they are well behind it, so only a handful of
+// chunks are ever alive. Each chunk is generated from a GameRandom reseeded from the run seed and
+// the chunk index, which makes the layout of a run reproducible from its seed alone. The stores must be
+// pooled: despawned entities go back to the pool and come out again for the next chunk.
+// A chunk holds at most MAX_PER_CHUNK entities, and one runner keeps a few chunks alive.
+// Two runners far apart keep everything between them alive, so a chunk is only generated when
+// a whole one fits under MAX_ALIVE. The ones the front runner reaches past that wait, and are
+// generated oldest first as the rear runner's despawning makes room, while no view shows them.
+// Only a chunk the rear view reaches while it still waits stays empty.
+final class LevelStreamer {
+    static final int CHUNK_WIDTH = 1200;
+    private static final int CHUNKS_PER_LEVEL = 6;
+    private static final int CHUNKS_AHEAD = 1;
+    private static final int MAX_ALIVE = 400; // Cap on entities across all stores
+    private static final int FRUIT_SPACING = 120;
+    private static final int MAX_ANIMALS = 5;
+    private static final int MAX_OBSTACLES = 4;
+    // Fruit along the chunk, the most animals and obstacles and a power-up
+    private static final int MAX_PER_CHUNK = CHUNK_WIDTH / FRUIT_SPACING + MAX_ANIMALS + MAX_OBSTACLES + 1;
+
+    private final long seed;
+    private final int groundY;
+    private final int viewWidth;
+    private final EntityStore<Fruit> fruits;
+    private final EntityStore<WildAnimal> animals;
+    private final EntityStore<PowerUp> powerUps;
+    private final EntityStore<Obstacle> obstacles;
+    private int nextChunk = 0;
+    private int despawnedBefore = 0;
+    private int[] pending = new int[8]; // Chunks waiting for room, oldest first
+    private int pendingCount = 0;
+    private final GameRandom random = new GameRandom(0);
+
+    LevelStreamer(long seed, int groundY, int viewWidth, EntityStore<Fruit> fruits, EntityStore<WildAnimal> animals,
+                  EntityStore<PowerUp> powerUps, EntityStore<Obstacle> obstacles) {
+        this.seed = seed;
+        this.groundY = groundY;
+        this.viewWidth = viewWidth;
+        this.fruits = fruits;
+        this.animals = animals;
+        this.powerUps = powerUps;
+        this.obstacles = obstacles;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    // Difficulty only depends on distance, so the same chunk always looks the same
+    static int levelAt(int x) {
+        return 1 + Math.max(0, x) / (CHUNK_WIDTH * CHUNKS_PER_LEVEL);
+    }
+
+    // Fraction of the current level's distance covered, for the HUD progress bar
+    static double levelProgress(int x) {
+        int levelWidth = CHUNK_WIDTH * CHUNKS_PER_LEVEL;
+        return (Math.max(0, x) % levelWidth) / (double) levelWidth;
+    }
+
+    // Called every tick with the rearmost and frontmost cameras (the same one with a single
+    // player); work only happens when one crosses a chunk border or chunks are waiting for
+    // room. Returns true when new entities were spawned.
+    boolean update(int rearCameraX, int frontCameraX) {
+        boolean generated = pendingCount > 0 && generatePending(rearCameraX, frontCameraX);
+        while (nextChunk * CHUNK_WIDTH < frontCameraX + viewWidth + CHUNKS_AHEAD * CHUNK_WIDTH) {
+            if (hasRoom()) {
+                generateChunk(nextChunk);
+                generated = true;
+            } else {
+                addPending(nextChunk);
+            }
+            nextChunk++;
+        }
+
+        int despawnX = rearCameraX - CHUNK_WIDTH;
+        if (despawnX >= despawnedBefore + CHUNK_WIDTH) {
+            despawn(fruits, despawnX);
+            despawn(animals, despawnX);
+            despawn(powerUps, despawnX);
+            despawn(obstacles, despawnX);
+            despawnedBefore = despawnX;
+        }
+        return generated;
+    }
+
+    // Snapshot state: where generation and despawning have got to and which chunks wait. Chunks
+    // are reseeded from the run seed, so nothing else is needed to carry on exactly.
+    void writeTo(ByteBuffer out) {
+        out.putInt(nextChunk).putInt(despawnedBefore).putInt(pendingCount);
+        for (int i = 0; i < pendingCount; i++) {
+            out.putInt(pending[i]);
+        }
+    }
+
+    void readFrom(ByteBuffer in) {
+        nextChunk = in.getInt();
+        despawnedBefore = in.getInt();
+        pendingCount = 0;
+        for (int i = in.getInt(); i > 0; i--) {
+            addPending(in.getInt());
+        }
+    }
+
+    int waitingChunks() {
+        return pendingCount;
+    }
+
+    int aliveCount() {
+        return fruits.size() + animals.size() + powerUps.size() + obstacles.size();
+    }
+
+    // Generates waiting chunks, oldest first, while they fit and neither view shows them; entities
+    // must not pop in on screen. One the rear view has reached is given up.
+    private boolean generatePending(int rearCameraX, int frontCameraX) {
+        boolean generated = false;
+        int kept = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            int chunk = pending[i];
+            int start = chunk * CHUNK_WIDTH;
+            if (start < rearCameraX + viewWidth) {
+                continue;
+            }
+            if (hasRoom() && !inView(start, frontCameraX)) {
+                generateChunk(chunk);
+                generated = true;
+            } else {
+                pending[kept++] = chunk;
+            }
+        }
+        pendingCount = kept;
+        return generated;
+    }
+
+    private boolean inView(int chunkStart, int cameraX) {
+        return chunkStart < cameraX + viewWidth && chunkStart + CHUNK_WIDTH > cameraX;
+    }
+
+    private boolean hasRoom() {
+        return aliveCount() + MAX_PER_CHUNK <= MAX_ALIVE;
+    }
+
+    private void addPending(int chunk) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingCount++] = chunk;
+    }
+
+    private void generateChunk(int chunk) {
+        FlightEvents.LevelGenerated event = FlightEvents.LevelGenerated.start();
+        int fruitsBefore = fruits.size();
+        int animalsBefore = animals.size();
+        int powerUpsBefore = powerUps.size();
+        int obstaclesBefore = obstacles.size();
+        random.setSeed(chunkSeed(chunk));
+        int start = chunk * CHUNK_WIDTH;
+        int level = levelAt(start);
+        int gameSpeed = 1 + (level - 1) / 3;
+        // Leave the first screen clear of hazards so a run does not start with a hit
+        int hazardStart = chunk == 0 ? 400 : 0;
+
+        for (int i = 0; i < CHUNK_WIDTH / FRUIT_SPACING; i++) {
+            int x = start + i * FRUIT_SPACING + random.nextInt(80);
+            int y = groundY - 30 - random.nextInt(50);
+            fruits.add(fruits.obtain().reset(x, y, random), 0);
+        }
+
+        int animalCount = Math.min(1 + level / 2, MAX_ANIMALS);
+        int spacing = (CHUNK_WIDTH - hazardStart) / animalCount;
+        for (int i = 0; i < animalCount; i++) {
+            int x = start + hazardStart + i * spacing + random.nextInt(Math.max(1, spacing - 100));
+            animals.add(animals.obtain().reset(x, groundY - 40, gameSpeed, random), 0);
+        }
+
+        if (level >= 2) {
+            int obstacleCount = Math.min(level / 2, MAX_OBSTACLES);
+            spacing = (CHUNK_WIDTH - hazardStart) / obstacleCount;
+            for (int i = 0; i < obstacleCount; i++) {
+                int x = start + hazardStart + i * spacing + random.nextInt(Math.max(1, spacing - 60));
+                obstacles.add(obstacles.obtain().reset(x, groundY - 40), 0);
+            }
+        }
+
+        if (random.nextInt(4) == 0) {
+            int x = start + random.nextInt(CHUNK_WIDTH - 100);
+            int y = groundY - 30 - random.nextInt(30);
+            PowerUp powerUp = powerUps.obtain().reset(x, y, random);
+            powerUps.add(powerUp, powerUp.type);
+        }
+        if (event != null) {
+            event.finish(level, chunk, fruits.size() - fruitsBefore, animals.size() - animalsBefore,
+                    powerUps.size() - powerUpsBefore, obstacles.size() - obstaclesBefore);
+        }
+    }
+
+    // Neighbouring chunk indexes get unrelated seeds
+    private long chunkSeed(int chunk) {
+        return GameRandom.mix(seed + (chunk + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static void despawn(EntityStore<?> store, int despawnX) {
+        for (int slot = store.size() - 1; slot >= 0; slot--) {
+            if (store.x[slot] + store.w[slot] < despawnX) {
+                store.removeAt(slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package forestrunner;
+
+// Stand-in for a network peer, for trying rollback on one machine: a player's input goes in
+// every tick and comes out delay ticks later, as if it had crossed a link with that latency.
+// With a delay of 0 it comes straight back out.
+final class LoopbackLink {
+    private final int[] inFlight; // Masks sent and not yet delivered, by tick % delay
+    private long sent;            // Ticks sent so far
+    private long delivered;       // Ticks delivered so far, each in the order it was sent
+
+    LoopbackLink(int delay) {
+        inFlight = new int[delay];
+    }
+
+    int delay() {
+        return inFlight.length;
+    }
+
+    void reset() {
+        sent = 0;
+        delivered = 0;
+    }
+
+    // Sends this tick's mask for player and confirms with rollback what arrives: the mask
+    // sent delay ticks ago, or nothing while the link is still filling
+    void send(Rollback rollback, int player, int mask) {
+        int arrived = exchange(mask);
+        if (arrived >= 0) {
+            rollback.confirm(player, arrivedTick(), arrived);
+        }
+    }
+
+    // Confirms every mask still in flight at once. For when the world has to stand on real
+    // input now, such as a game that ended on a guess; a real peer would wait for them instead.
+    // Afterwards the link fills up again from the next tick sent.
+    void flush(Rollback rollback, int player) {
+        while (delivered < sent) {
+            int mask = inFlight[(int) (delivered % inFlight.length)];
+            delivered++;
+            rollback.confirm(player, arrivedTick(), mask);
+        }
+    }
+
+    // Sends this tick's mask and returns the one sent delay ticks ago, for tick arrivedTick();
+    // -1 while nothing has arrived yet
+    int exchange(int mask) {
+        if (inFlight.length == 0) {
+            sent++;
+            delivered++;
+            return mask;
+        }
+        int arrived = -1;
+        if (sent - delivered == inFlight.length) {
+            arrived = inFlight[(int) (delivered % inFlight.length)];
+            delivered++;
+        }
+        inFlight[(int) (sent % inFlight.length)] = mask;
+        sent++;
+        return arrived;
+    }
+
+    // The tick the last mask delivered was sent for, counting from 0 since reset()
+    long arrivedTick() {
+        return delivered - 1;
+    }
+}
@@ -0,0 +1,148 @@
+package forestrunner;
+
+import javax.sound.sampled.AudioInputStream;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+// One music track streamed from disk. A reader thread decodes the file a chunk at a time into
+// a fixed ring of 16-bit stereo frames and the mixer drains it from the audio thread, so the
+// memory used is the ring plus one read chunk however long the track is. At the end of the
+// file the reader reopens it and keeps writing into the same ring, which makes the loop
+// gapless. Single producer (reader), single consumer (mixer): positions are published through
+// volatile fields and never go backwards.
+final class MusicStream {
+    private static final int CHUNK_BYTES = 16 * 1024;
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+
+    final String path;
+    private final short[] ring;
+    private final int capacity; // In frames, power of two
+    private final byte[] chunk = new byte[CHUNK_BYTES];
+    private volatile long written; // Frames
+    private volatile long read;
+    private volatile boolean closed;
+    private volatile boolean failed;
+    private long underruns;
+    private final Thread reader;
+
+    MusicStream(String path, int ringFrames) {
+        this.path = path;
+        this.capacity = Integer.highestOneBit(Math.max(1024, ringFrames));
+        this.ring = new short[capacity * 2];
+        this.reader = new Thread(this::fill, "music-" + path);
+        reader.setDaemon(true);
+        reader.setPriority(Thread.NORM_PRIORITY + 1);
+        reader.start();
+    }
+
+    // Copies up to frames buffered frames into dst (interleaved) and returns how many. Called
+    // by the mixer only; a short read while the track is still playing counts as an underrun.
+    int read(short[] dst, int frames) {
+        long start = read;
+        int available = (int) Math.min(frames, written - start);
+        int from = (int) (start & (capacity - 1));
+        int first = Math.min(available, capacity - from);
+        System.arraycopy(ring, from * 2, dst, 0, first * 2);
+        System.arraycopy(ring, 0, dst, first * 2, (available - first) * 2);
+        read = start + available;
+        if (available < frames && start > 0 && !failed) {
+            underruns++;
+        }
+        return available;
+    }
+
+    // Lets the reader thread finish and close the file; safe to call from the audio thread
+    void close() {
+        closed = true;
+        LockSupport.unpark(reader);
+    }
+
+    // Frames decoded and not yet read
+    int available() {
+        return (int) (written - read);
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    long underruns() {
+        return underruns;
+    }
+
+    int capacityFrames() {
+        return capacity;
+    }
+
+    private void fill() {
+        AudioInputStream in = null;
+        int channels = 2;
+        long bytesSinceOpen = 0;
+        try {
+            while (!closed) {
+                if (in == null) {
+                    in = AudioMixer.openPcm(path);
+                    channels = in.getFormat().getChannels();
+                    bytesSinceOpen = 0;
+                }
+                int frameBytes = channels * 2;
+                // Only read as much as the ring has room for, whole frames only
+                long free = capacity - (written - read);
+                int want = (int) Math.min(CHUNK_BYTES / frameBytes, free) * frameBytes;
+                if (want == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                int got = readFully(in, chunk, want, frameBytes);
+                if (got == 0) {
+                    if (bytesSinceOpen == 0) {
+                        throw new IOException("track is empty");
+                    }
+                    // End of track: start it again into the same ring
+                    in.close();
+                    in = null;
+                    continue;
+                }
+                bytesSinceOpen += got;
+                append(chunk, got / frameBytes, channels);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Music stream stopped for " + path + ": " + e.getMessage());
+            failed = true;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    // Reads until want bytes or end of stream, returning a whole number of frames
+    private static int readFully(AudioInputStream in, byte[] buffer, int want, int frameBytes) throws IOException {
+        int got = 0;
+        while (got < want) {
+            int n = in.read(buffer, got, want - got);
+            if (n < 0) {
+                break;
+            }
+            got += n;
+        }
+        return got - got % frameBytes;
+    }
+
+    private void append(byte[] bytes, int frames, int channels) {
+        long position = written;
+        for (int f = 0; f < frames; f++) {
+            int b = f * channels * 2;
+            short left = (short) ((bytes[b] & 0xFF) | (bytes[b + 1] << 8));
+            short right = channels == 2 ? (short) ((bytes[b + 2] & 0xFF) | (bytes[b + 3] << 8)) : left;
+            int slot = (int) ((position + f) & (capacity - 1)) * 2;
+            ring[slot] = left;
+            ring[slot + 1] = right;
+        }
+        written = position + frames;
+    }
+}
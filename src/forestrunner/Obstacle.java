@@ -0,0 +1,65 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+class Obstacle extends Entity {
+    private static final Color ROCK = new Color(100, 100, 100);
+    private static final Color ROCK_TEXTURE = new Color(80, 80, 80);
+    private static final Color ROCK_HIGHLIGHT = new Color(120, 120, 120);
+
+    // Image variables
+    private BufferedImage image; // Pre-scaled or painted once, shared with every other instance
+
+    public Obstacle() {
+        super(30, 40);
+        loadImage();
+    }
+
+    public Obstacle reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    private void loadImage() {
+        image = SpriteAtlas.scaled("images/obstacle.png", width, height);
+        if (image == null) {
+            int w = width;
+            int h = height;
+            image = SpriteAtlas.painted("obstacle:rock", w, h, g -> drawRock(g, w, h));
+        }
+    }
+
+    // Snapshot state, in the order WorldSnapshot's layout lists it
+    void writeTo(ByteBuffer out) {
+        out.putInt(x).putInt(y);
+    }
+
+    public Obstacle readFrom(ByteBuffer in) {
+        return reset(in.getInt(), in.getInt());
+    }
+
+    public void draw(Graphics g, int cameraX) {
+        g.drawImage(image, x - cameraX, y, null);
+    }
+
+    // Fallback when the image is missing: a rock-like obstacle, painted once into the atlas
+    private static void drawRock(Graphics2D g, int width, int height) {
+        // Draw rock shape
+        g.setColor(ROCK);
+        g.fillPolygon(new int[] {0, 8, width, width - 5, 15, 5},
+                new int[] {height, 10, 5, height, height, height}, 6);
+
+        // Add some texture
+        g.setColor(ROCK_TEXTURE);
+        g.fillOval(5, 15, 8, 6);
+        g.fillOval(15, 25, 6, 4);
+
+        // Highlight
+        g.setColor(ROCK_HIGHLIGHT);
+        g.drawLine(3, 20, 8, 15);
+        g.drawLine(12, 10, 18, 8);
+    }
+}
\ No newline at end of file
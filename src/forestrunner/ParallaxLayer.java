@@ -0,0 +1,38 @@
+package forestrunner;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+// One background layer rendered once into an image holding its repeating tile twice side by
+// side. Any scroll position is then a single blit of a view-wide window out of that strip, in
+// place of whatever image draws and shape fills made up the tile.
+final class ParallaxLayer {
+    private final BufferedImage strip;
+    private final int tileWidth;
+    private final int y;
+    private final int height;
+    private final int divisor;
+
+    // The painter draws one tile at the origin, in layer coordinates (0, 0 is the layer's top
+    // left); divisor is how many camera pixels move the layer by one, 0 for a fixed layer
+    ParallaxLayer(int tileWidth, int y, int height, int divisor, int transparency, Consumer<Graphics2D> painter) {
+        this.tileWidth = tileWidth;
+        this.y = y;
+        this.height = height;
+        this.divisor = divisor;
+        strip = SpriteAtlas.createCompatibleImage(tileWidth * 2, height, transparency);
+        Graphics2D g = strip.createGraphics();
+        painter.accept(g);
+        g.translate(tileWidth, 0);
+        painter.accept(g);
+        g.dispose();
+    }
+
+    // viewWidth must not exceed the tile width
+    void draw(Graphics g, int cameraX, int viewWidth) {
+        int offset = divisor == 0 ? 0 : Math.floorMod(cameraX / divisor, tileWidth);
+        g.drawImage(strip, 0, y, viewWidth, y + height, offset, 0, offset + viewWidth, height, null);
+    }
+}
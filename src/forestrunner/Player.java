@@ -0,0 +1,329 @@
+package forestrunner;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+class Player {
+    public int x;
+    public int y;
+    public int prevX; // Position at the previous tick, for render interpolation
+    public int prevY;
+    public int width;
+    public int height;
+    public int velocityY = 0;
+    public boolean onGround = true;
+    public int lives = 3;
+    public boolean invulnerable = false;
+    public int invulnerabilityTimer = 0;
+    public boolean hasSpeedBoost = false;
+    public boolean hasJumpBoost = false;
+    public int speedBoostTimer = 0;
+    public int jumpBoostTimer = 0;
+    private static final int BASE_SPEED = 5;
+    private static final int BASE_JUMP_POWER = -15;
+    private static final int GRAVITY = 1;
+    private static final int MAX_LIVES = 5;
+    private static final Color SPEED_COLOR = new Color(0, 255, 255);
+    private static final Color JUMP_COLOR = new Color(0, 255, 0);
+    private static final Color SPEED_TRAIL = new Color(0, 255, 255, 100);
+    private static final Color JUMP_ARROW = new Color(0, 255, 0, 150);
+    private static final Color SHIELD_OUTLINE = new Color(255, 255, 0, 100);
+    private static final Color SHIELD_FILL = new Color(255, 255, 0, 50);
+    private static final int TRAIL_LENGTH = 50; // How far the speed trail reaches behind the player
+    private static final int SHIELD_MARGIN = 5; // How far the shield reaches past the body
+    private boolean facingRight = true;
+
+    // idle.png is a single pose, so the clips move that one frame; a sheet with more frames only
+    // needs SHEET_COLUMNS / SHEET_ROWS and the frame numbers below changed
+    private static final int SHEET_COLUMNS = 1;
+    private static final int SHEET_ROWS = 1;
+    private static final AnimationClip IDLE = AnimationClip.of("idle", 150, true, 0);
+    private static final AnimationClip RUN = AnimationClip.of("run", 150, true, 0, 0, 0, 0);
+    private static final AnimationClip JUMP = AnimationClip.of("jump", 100, false, 0);
+    private static final AnimationClip HIT = AnimationClip.of("hit", 80, false, 0, 0, 0, 0)
+            .withOffsetsY(-6, -3, -6, 0);
+    private static final AnimationClip[] CLIPS = {IDLE, RUN, JUMP, HIT}; // Snapshots save the index
+    private SpriteSheet sheet; // Shared atlas, both facing directions
+    // The translucent effects, painted once: drawn shape by shape, the software pipeline makes
+    // a raster for every span they cover, every frame
+    private BufferedImage speedTrail;
+    private BufferedImage jumpArrow;
+    private BufferedImage shield;
+    private final Animation animation = new Animation(IDLE);
+
+    // NEW: Offset tambahan untuk menyeimbangkan visual pemain dengan ground.
+    // Sesuaikan nilai ini jika setelah perubahan lain, pemain masih melayang atau terlalu tenggelam.
+    // Nilai positif akan membuat pemain "turun" (lebih dekat ke ground).
+    // Nilai negatif akan membuat pemain "naik" (lebih jauh dari ground).
+    private static final int FINE_TUNE_Y_OFFSET = 0; // Mulai dari 0, sesuaikan jika perlu.
+
+    public Player(int x, int y) {
+        this.loadImage();
+        // Pastikan width dan height sudah diatur setelah loadImage()
+        // Jika loadImage() gagal, width dan height akan menggunakan nilai fallback.
+        this.reset(x, y);
+    }
+
+    // Back to a fresh start at (x, y); a restart reuses the same Player and its images
+    public void reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.savePosition();
+        this.velocityY = 0;
+        this.onGround = true;
+        this.lives = 3;
+        this.invulnerable = false;
+        this.invulnerabilityTimer = 0;
+        this.hasSpeedBoost = false;
+        this.hasJumpBoost = false;
+        this.speedBoostTimer = 0;
+        this.jumpBoostTimer = 0;
+        this.animation.restart(IDLE);
+        this.facingRight = true;
+    }
+
+    private void loadImage() {
+        Sprite sprite = Assets.sprite("images/idle.png");
+        if (sprite.isLoaded()) {
+            // AMBIL DIMENSI DARI GAMBAR YANG DIMUAT
+            this.width = sprite.width() / SHEET_COLUMNS;
+            this.height = sprite.height() / SHEET_ROWS;
+            this.sheet = SpriteSheet.get(sprite.path, SHEET_COLUMNS, SHEET_ROWS, this.width, this.height);
+        } else {
+            // Fallback: Jika gambar tidak bisa dimuat, gunakan ukuran default
+            this.width = 75;
+            this.height = 130;
+        }
+        int w = this.width;
+        int h = this.height;
+        this.speedTrail = SpriteAtlas.painted("player:speed-trail", TRAIL_LENGTH, 1, Player::drawSpeedTrail);
+        this.jumpArrow = SpriteAtlas.painted("player:jump-arrow", 11, 6, Player::drawJumpArrow);
+        this.shield = SpriteAtlas.painted("player:shield@" + w + 'x' + h, w + 2 * SHIELD_MARGIN + 1,
+                h + 2 * SHIELD_MARGIN + 1, g -> drawShield(g, w, h));
+    }
+
+    // Snapshot state, in the order WorldSnapshot's layout lists it. The size comes from the
+    // sprite, so it is not saved.
+    void writeTo(ByteBuffer out) {
+        int clip = 0;
+        while (CLIPS[clip] != this.animation.clip()) {
+            clip++;
+        }
+        out.putInt(this.x).putInt(this.y).putInt(this.prevX).putInt(this.prevY).putInt(this.velocityY)
+                .put((byte) (this.onGround ? 1 : 0)).put((byte) (this.facingRight ? 1 : 0)).putInt(this.lives)
+                .put((byte) (this.invulnerable ? 1 : 0)).putInt(this.invulnerabilityTimer)
+                .put((byte) (this.hasSpeedBoost ? 1 : 0)).putInt(this.speedBoostTimer)
+                .put((byte) (this.hasJumpBoost ? 1 : 0)).putInt(this.jumpBoostTimer)
+                .put((byte) clip).putLong(this.animation.elapsedMicros());
+    }
+
+    void readFrom(ByteBuffer in) {
+        this.x = in.getInt();
+        this.y = in.getInt();
+        this.prevX = in.getInt();
+        this.prevY = in.getInt();
+        this.velocityY = in.getInt();
+        this.onGround = in.get() != 0;
+        this.facingRight = in.get() != 0;
+        this.lives = in.getInt();
+        this.invulnerable = in.get() != 0;
+        this.invulnerabilityTimer = in.getInt();
+        this.hasSpeedBoost = in.get() != 0;
+        this.speedBoostTimer = in.getInt();
+        this.hasJumpBoost = in.get() != 0;
+        this.jumpBoostTimer = in.getInt();
+        AnimationClip clip = CLIPS[in.get()];
+        this.animation.restore(clip, in.getLong());
+    }
+
+    public void savePosition() {
+        this.prevX = this.x;
+        this.prevY = this.y;
+    }
+
+    public void update(boolean[] keys, int groundY) {
+        int currentSpeed = this.hasSpeedBoost ? 10 : 5;
+        int currentJumpPower = this.hasJumpBoost ? -20 : -15;
+        boolean moving = false;
+        if (keys[37]) {
+            this.x -= currentSpeed;
+            this.facingRight = false;
+            moving = true;
+        }
+
+        if (keys[39]) {
+            this.x += currentSpeed;
+            this.facingRight = true;
+            moving = true;
+        }
+
+        if (keys[38] && this.onGround) {
+            this.velocityY = currentJumpPower;
+            this.onGround = false;
+        }
+
+        ++this.velocityY;
+        this.y += this.velocityY;
+
+        // PENYESUAIAN PENTING DI SINI:
+        // Gunakan FINE_TUNE_Y_OFFSET untuk menyeimbangkan posisi y pemain
+        if (this.y >= groundY - this.height + FINE_TUNE_Y_OFFSET) {
+            this.y = groundY - this.height + FINE_TUNE_Y_OFFSET;
+            this.velocityY = 0;
+            this.onGround = true;
+        }
+
+        if (this.invulnerable) {
+            --this.invulnerabilityTimer;
+            if (this.invulnerabilityTimer <= 0) {
+                this.invulnerable = false;
+            }
+        }
+
+        if (this.hasSpeedBoost) {
+            --this.speedBoostTimer;
+            if (this.speedBoostTimer <= 0) {
+                this.hasSpeedBoost = false;
+            }
+        }
+
+        if (this.hasJumpBoost) {
+            --this.jumpBoostTimer;
+            if (this.jumpBoostTimer <= 0) {
+                this.hasJumpBoost = false;
+            }
+        }
+
+        if (this.x < 0) {
+            this.x = 0;
+        }
+
+        this.updateAnimation(moving);
+    }
+
+    // A hit plays out in full; otherwise the clip follows what the player is doing
+    private void updateAnimation(boolean moving) {
+        if (this.animation.clip() != HIT || this.animation.isFinished()) {
+            if (!this.onGround) {
+                this.animation.play(JUMP);
+            } else if (moving) {
+                this.animation.play(RUN);
+            } else {
+                this.animation.play(IDLE);
+            }
+        }
+        this.animation.advance(World.TICK_MICROS);
+    }
+
+    public void activatePowerUp(int type) {
+        switch (type) {
+            case 0:
+                this.hasSpeedBoost = true;
+                this.speedBoostTimer = 600;
+                break;
+            case 1:
+                this.hasJumpBoost = true;
+                this.jumpBoostTimer = 600;
+                break;
+            case 2:
+                if (this.lives < 5) {
+                    ++this.lives;
+                }
+                break;
+            case 3:
+                this.invulnerable = true;
+                this.invulnerabilityTimer = 300;
+        }
+
+    }
+
+    public void takeDamage() {
+        if (!this.invulnerable) {
+            --this.lives;
+            this.invulnerable = true;
+            this.invulnerabilityTimer = 120;
+            this.animation.restart(HIT);
+        }
+
+    }
+
+    public void draw(Graphics g, int cameraX, float alpha) {
+        int drawX = this.prevX + Math.round((this.x - this.prevX) * alpha) - cameraX;
+        int drawY = this.prevY + Math.round((this.y - this.prevY) * alpha);
+        if (!this.invulnerable || this.invulnerabilityTimer / 10 % 2 == 0) {
+            if (this.sheet != null) {
+                this.sheet.draw(g, this.animation.frame(), !this.facingRight, drawX, drawY + this.animation.offsetY());
+            } else {
+                this.drawFallbackPlayer(g, drawX, drawY);
+            }
+
+            this.drawPowerUpEffects(g, drawX, drawY);
+        }
+
+    }
+
+    private void drawFallbackPlayer(Graphics g, int drawX, int drawY) {
+        Color bodyColor = Color.BLUE;
+        if (this.hasSpeedBoost) {
+            bodyColor = SPEED_COLOR;
+        } else if (this.hasJumpBoost) {
+            bodyColor = JUMP_COLOR;
+        }
+
+        g.setColor(bodyColor);
+        // Pastikan fallback player juga menggunakan width/height yang benar
+        g.fillRect(drawX, drawY, this.width, this.height);
+        g.setColor(Color.WHITE);
+        int eyeOffset = this.facingRight ? 10 : 22;
+        g.fillOval(drawX + eyeOffset, drawY + 10, 8, 8);
+        g.fillOval(drawX + eyeOffset + 12, drawY + 10, 8, 8);
+        g.setColor(Color.BLACK);
+        g.fillOval(drawX + eyeOffset + 2, drawY + 12, 4, 4);
+        g.fillOval(drawX + eyeOffset + 14, drawY + 12, 4, 4);
+        g.setColor(bodyColor);
+        int legOffset1 = this.animation.step() % 2 == 0 ? 0 : 2;
+        int legOffset2 = this.animation.step() % 2 == 0 ? 2 : 0;
+        g.fillRect(drawX + 8 + legOffset1, drawY + this.height - 10, 8, 10);
+        g.fillRect(drawX + 24 + legOffset2, drawY + this.height - 10, 8, 10);
+        g.fillRect(drawX - 5, drawY + 15, 10, 6);
+        g.fillRect(drawX + this.width - 5, drawY + 15, 10, 6);
+    }
+
+    private void drawPowerUpEffects(Graphics g, int drawX, int drawY) {
+        if (this.hasSpeedBoost) {
+            g.drawImage(this.speedTrail, drawX - TRAIL_LENGTH, drawY + this.height / 2, null);
+        }
+
+        if (this.hasJumpBoost && !this.onGround) {
+            g.drawImage(this.jumpArrow, drawX + this.width / 2 - 5, drawY - 10, null);
+        }
+
+        if (this.invulnerable && this.invulnerabilityTimer > 120) {
+            g.drawImage(this.shield, drawX - SHIELD_MARGIN, drawY - SHIELD_MARGIN, null);
+        }
+
+    }
+
+    // The effects at the origin of their images, for the atlas
+    private static void drawSpeedTrail(Graphics2D g) {
+        g.setColor(SPEED_TRAIL);
+        for (int i = 1; i <= 5; ++i) {
+            g.drawLine(TRAIL_LENGTH - i * 10, 0, TRAIL_LENGTH - i * 5, 0);
+        }
+    }
+
+    private static void drawJumpArrow(Graphics2D g) {
+        g.setColor(JUMP_ARROW);
+        g.fillPolygon(new int[]{5, 0, 10}, new int[]{0, 5, 5}, 3);
+    }
+
+    private static void drawShield(Graphics2D g, int width, int height) {
+        g.setColor(SHIELD_OUTLINE);
+        g.drawOval(0, 0, width + 2 * SHIELD_MARGIN, height + 2 * SHIELD_MARGIN);
+        g.setColor(SHIELD_FILL);
+        g.fillOval(0, 0, width + 2 * SHIELD_MARGIN, height + 2 * SHIELD_MARGIN);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+class PowerUp extends Entity {
+    int type; // 0 = speed, 1 = jump, 2 = extra life, 3 = invulnerability
+    private int animationOffset = 0;
+    private int animationDirection = 1;
+    private long simulatedTick; // World tick the float has been stepped to, -1 until World stamps it
+    private static final int FLOAT_PERIOD = 44; // Ticks for one full rise and fall
+
+    // Image variables
+    private BufferedImage image; // Pre-scaled with its 90% opacity baked in
+    private BufferedImage[] fallbacks; // Without the image, each type's glow painted once
+    private BufferedImage[] symbols; // Each type's symbol painted once; drawString() allocates
+    private static final int GLOW = 5; // How far the fallback's glow reaches past the body
+
+    // Power-up colors
+    private static final Color[] powerUpColors = {
+            new Color(0, 255, 255),    // Cyan for speed
+            new Color(0, 255, 0),      // Green for jump
+            new Color(255, 0, 255),    // Magenta for extra life
+            new Color(255, 255, 0)     // Yellow for invulnerability
+    };
+    private static final Color[] glowColors = new Color[powerUpColors.length];
+    private static final String[] SYMBOLS = {"S", "J", "+", "I"};
+    private static final Font SYMBOL_FONT = new Font("Arial", Font.BOLD, 12);
+
+    static {
+        for (int i = 0; i < powerUpColors.length; i++) {
+            Color c = powerUpColors[i];
+            glowColors[i] = new Color(c.getRed(), c.getGreen(), c.getBlue(), 50);
+        }
+    }
+
+    public PowerUp() {
+        super(25, 25);
+        loadImage();
+    }
+
+    public PowerUp reset(int x, int y, GameRandom random) {
+        this.x = x;
+        this.y = y;
+        this.type = random.nextInt(4); // Random power-up type
+        this.animationOffset = 0;
+        this.animationDirection = 1;
+        this.simulatedTick = -1;
+        return this;
+    }
+
+    private void loadImage() {
+        image = SpriteAtlas.faded("images/powerup.png", width, height, 0.9f);
+        if (image == null) {
+            fallbacks = new BufferedImage[powerUpColors.length];
+            int size = width + 2 * GLOW;
+            for (int i = 0; i < fallbacks.length; i++) {
+                int kind = i;
+                fallbacks[i] = SpriteAtlas.painted("powerup:" + i, size, size, g -> drawFallbackPowerUp(g, kind));
+            }
+        }
+        symbols = new BufferedImage[SYMBOLS.length];
+        for (int i = 0; i < symbols.length; i++) {
+            int kind = i;
+            symbols[i] = SpriteAtlas.painted("powerup-symbol:" + i, width, height, g -> drawPowerUpSymbol(g, kind));
+        }
+    }
+
+    // Snapshot state, in the order WorldSnapshot's layout lists it
+    void writeTo(ByteBuffer out) {
+        out.putInt(x).putInt(y).put((byte) type).put((byte) animationOffset).put((byte) animationDirection)
+                .putLong(simulatedTick);
+    }
+
+    public PowerUp readFrom(ByteBuffer in) {
+        this.x = in.getInt();
+        this.y = in.getInt();
+        this.type = in.get();
+        this.animationOffset = in.get();
+        this.animationDirection = in.get();
+        this.simulatedTick = in.getLong();
+        return this;
+    }
+
+    // Sets the tick a newly spawned power-up starts from; later calls do nothing
+    void spawnedAt(long tick) {
+        if (simulatedTick < 0) {
+            simulatedTick = tick;
+        }
+    }
+
+    // World's step, including the ticks missed while dormant. The float repeats every
+    // FLOAT_PERIOD ticks, so however long it slept at most one period is replayed.
+    void updateTo(long tick) {
+        for (long missed = (tick - simulatedTick) % FLOAT_PERIOD; missed > 0; missed--) {
+            update();
+        }
+        simulatedTick = tick;
+    }
+
+    boolean isDormant(int minX, int maxX) {
+        return x + width < minX || x > maxX;
+    }
+
+    public void update() {
+        // Floating animation
+        animationOffset += animationDirection;
+        if (animationOffset > 10) {
+            animationDirection = -1;
+        } else if (animationOffset < -10) {
+            animationDirection = 1;
+        }
+    }
+
+    public void draw(Graphics g, int cameraX) {
+        int screenX = x - cameraX;
+        int drawY = y + animationOffset;
+
+        if (image != null) {
+            g.drawImage(image, screenX, drawY, null);
+        } else {
+            g.drawImage(fallbacks[type], screenX - GLOW, drawY - GLOW, null);
+        }
+
+        // Draw power-up icon/symbol
+        g.drawImage(symbols[type], screenX, drawY, null);
+    }
+
+    // Enhanced fallback drawing, with the glow's corner at 0, 0
+    private void drawFallbackPowerUp(Graphics2D g, int kind) {
+        // Outer glow
+        g.setColor(glowColors[kind]);
+        g.fillOval(0, 0, width + 2 * GLOW, height + 2 * GLOW);
+
+        // Main power-up body
+        g.setColor(powerUpColors[kind]);
+        g.fillOval(GLOW, GLOW, width, height);
+
+        // Inner highlight
+        g.setColor(Color.WHITE);
+        g.fillOval(GLOW + 5, GLOW + 5, width - 10, height - 10);
+
+        // Core
+        g.setColor(powerUpColors[kind]);
+        g.fillOval(GLOW + 8, GLOW + 8, width - 16, height - 16);
+    }
+
+    // Centred on the body, with its corner at 0, 0
+    private void drawPowerUpSymbol(Graphics2D g, int kind) {
+        g.setColor(Color.WHITE);
+        g.setFont(SYMBOL_FONT);
+        FontMetrics fm = g.getFontMetrics();
+
+        // Speed, jump, extra life, invulnerability
+        String symbol = SYMBOLS[kind];
+
+        int symbolX = (width - fm.stringWidth(symbol)) / 2;
+        int symbolY = (height + fm.getAscent()) / 2;
+        g.drawString(symbol, symbolX, symbolY);
+    }
+}
\ No newline at end of file
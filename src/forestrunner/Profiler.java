@@ -0,0 +1,209 @@
+package forestrunner;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+// Named timing spans around the tick and the render passes. Each span goes into a
+// LatencyHistogram; once a second the live histograms are summarised for the on-screen
+// overlay and folded into the export window, which a background thread appends to a CSV
+// (or JSON lines, for a .json path) file every interval. While neither the overlay nor the
+// export is on, begin() is a single volatile read and end() returns straight away.
+final class Profiler {
+    enum Span {
+        TICK("tick"),
+        UPDATE("update"),
+        COLLISIONS("collisions"),
+        ROLLBACK("rollback"),
+        FRAME("frame"),
+        BACKGROUND("background"),
+        ENTITIES("entities"),
+        HUD("hud");
+
+        final String label;
+
+        Span(String label) {
+            this.label = label;
+        }
+    }
+
+    // Columns of a summary row, as copied out by summary()
+    static final int PER_SECOND = 0;
+    static final int P50_MS = 1;
+    static final int P99_MS = 2;
+    static final int MAX_MS = 3;
+    static final int COLUMNS = 4;
+
+    private static final Span[] SPANS = Span.values();
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    // Never enabled: what the headless World uses unless a game hands it a real one
+    static final Profiler NONE = new Profiler();
+
+    private final LatencyHistogram[] live = new LatencyHistogram[SPANS.length];
+    private final LatencyHistogram[] exportWindow = new LatencyHistogram[SPANS.length];
+    private final double[][] summary = new double[SPANS.length][COLUMNS];
+    private long windowStart = System.nanoTime();
+
+    private volatile boolean enabled;
+    private boolean overlay;
+    private Path exportPath;
+    private long exportStartMillis;
+
+    Profiler() {
+        for (int i = 0; i < SPANS.length; i++) {
+            live[i] = new LatencyHistogram();
+            exportWindow[i] = new LatencyHistogram();
+        }
+    }
+
+    // Start of a span, or 0 when profiling is off; pass the result to end()
+    long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void end(Span span, long start) {
+        if (start == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            live[span.ordinal()].record(now - start);
+            if (now - windowStart >= WINDOW_NANOS) {
+                roll(now);
+            }
+        }
+    }
+
+    synchronized boolean isOverlayShown() {
+        return overlay;
+    }
+
+    synchronized void setOverlayShown(boolean shown) {
+        overlay = shown;
+        updateEnabled();
+    }
+
+    // Copies the last completed one-second window into rows[span.ordinal()][column]
+    synchronized void summary(double[][] rows) {
+        for (int i = 0; i < SPANS.length; i++) {
+            System.arraycopy(summary[i], 0, rows[i], 0, COLUMNS);
+        }
+    }
+
+    // Appends a row per span to path every intervalSeconds, plus once more when the JVM exits
+    synchronized void startExport(Path path, int intervalSeconds) {
+        exportPath = path;
+        exportStartMillis = System.currentTimeMillis();
+        updateEnabled();
+
+        Thread exporter = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalSeconds * 1000L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                export();
+            }
+        }, "profile-export");
+        exporter.setDaemon(true);
+        exporter.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::export, "profile-export-final"));
+    }
+
+    private void updateEnabled() {
+        boolean wasEnabled = enabled;
+        enabled = overlay || exportPath != null;
+        if (enabled && !wasEnabled) {
+            // Do not report whatever was left over from the last time it was on
+            for (LatencyHistogram histogram : live) {
+                histogram.reset();
+            }
+            windowStart = System.nanoTime();
+        }
+    }
+
+    // Ends the one-second window: summary for the overlay, counts moved to the export window
+    private void roll(long now) {
+        double seconds = (now - windowStart) / 1e9;
+        for (int i = 0; i < SPANS.length; i++) {
+            LatencyHistogram histogram = live[i];
+            double[] row = summary[i];
+            row[PER_SECOND] = histogram.count() / seconds;
+            row[P50_MS] = histogram.percentileNanos(0.50) / 1e6;
+            row[P99_MS] = histogram.percentileNanos(0.99) / 1e6;
+            row[MAX_MS] = histogram.maxNanos() / 1e6;
+            if (exportPath != null) {
+                exportWindow[i].add(histogram);
+            }
+            histogram.reset();
+        }
+        windowStart = now;
+    }
+
+    private void export() {
+        String text;
+        Path path;
+        synchronized (this) {
+            path = exportPath;
+            roll(System.nanoTime()); // Take in the partial window too
+            long nowMillis = System.currentTimeMillis();
+            double windowSeconds = (nowMillis - exportStartMillis) / 1000.0;
+            exportStartMillis = nowMillis;
+            text = isJson(path) ? formatJson(nowMillis, windowSeconds) : formatCsv(nowMillis, windowSeconds);
+            for (LatencyHistogram histogram : exportWindow) {
+                histogram.reset();
+            }
+        }
+        try {
+            boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+            try (Writer out = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (fresh && !isJson(path)) {
+                    out.write("epoch_ms,window_s,span,count,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+                }
+                out.write(text);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write profile to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isJson(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    private String formatCsv(long epochMillis, double windowSeconds) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < SPANS.length; i++) {
+            LatencyHistogram h = exportWindow[i];
+            out.append(String.format(Locale.ROOT, "%d,%.3f,%s,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f\n",
+                    epochMillis, windowSeconds, SPANS[i].label, h.count(), h.meanNanos() / 1e6,
+                    h.percentileNanos(0.50) / 1e6, h.percentileNanos(0.90) / 1e6, h.percentileNanos(0.99) / 1e6,
+                    h.percentileNanos(0.999) / 1e6, h.maxNanos() / 1e6));
+        }
+        return out.toString();
+    }
+
+    // One object per line, so the file stays appendable and a collector can stream it
+    private String formatJson(long epochMillis, double windowSeconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "{\"epoch_ms\":%d,\"window_s\":%.3f,\"spans\":{", epochMillis, windowSeconds));
+        for (int i = 0; i < SPANS.length; i++) {
+            LatencyHistogram h = exportWindow[i];
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(String.format(Locale.ROOT,
+                    "\"%s\":{\"count\":%d,\"mean_ms\":%.4f,\"p50_ms\":%.4f,\"p90_ms\":%.4f,\"p99_ms\":%.4f,\"p999_ms\":%.4f,\"max_ms\":%.4f}",
+                    SPANS[i].label, h.count(), h.meanNanos() / 1e6, h.percentileNanos(0.50) / 1e6,
+                    h.percentileNanos(0.90) / 1e6, h.percentileNanos(0.99) / 1e6,
+                    h.percentileNanos(0.999) / 1e6, h.maxNanos() / 1e6));
+        }
+        out.append("}}\n");
+        return out.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package forestrunner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Headless playback of an InputRecording: rebuilds the World from the recorded seed and feeds
+// it the recorded keys as fast as it will go, with no window, frame pacing or sound. Reports
+// how long the simulation took and whether it ended with the recorded score and level, so a
+// recording doubles as a repeatable performance workload and a determinism check.
+final class Replay {
+    private Replay() {
+    }
+
+    // Returns true when the replay ended exactly like the recorded game
+    static boolean run(String file, int repeats) throws IOException {
+        Path path = Paths.get(file);
+        InputRecording recording = InputRecording.load(path);
+        System.out.printf("Replaying %s: seed %d, %d ticks in %d runs%s%n", path, recording.seed,
+                recording.ticks(), recording.runCount(), recording.endless ? ", endless" : "");
+
+        World world = new World(ForestRunner.GROUND_Y, ForestRunner.SCREEN_WIDTH, recording.endless, WorldEvents.NONE);
+        boolean[] keys = new boolean[256];
+        boolean matched = true;
+        for (int i = 0; i < repeats; i++) {
+            world.reset(recording.seed);
+            recording.rewind();
+            long start = System.nanoTime();
+            int ticks = 0;
+            while (recording.next(keys)) {
+                world.tick(keys);
+                ticks++;
+            }
+            long nanos = System.nanoTime() - start;
+
+            boolean same = world.score == recording.finalScore() && world.level == recording.finalLevel();
+            matched &= same;
+            System.out.printf("  %d ticks in %.1f ms (%.0f ticks/s): score %d, level %d, %s%n",
+                    ticks, nanos / 1_000_000.0, ticks * 1e9 / nanos, world.score, world.level,
+                    same ? "matches the recording" : "DIFFERS from the recorded score "
+                            + recording.finalScore() + ", level " + recording.finalLevel());
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,308 @@
+package forestrunner;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Runs a World whose input for some players can arrive a few ticks late. Each tick it keeps
+// the world as it was before the tick (World.writeTo() into a reused buffer) and the input the
+// tick was played with. A player whose input has not arrived is predicted to keep pressing what
+// they pressed last. When the real input arrives and differs, the world is restored to before
+// the first wrong tick and those ticks are played again with what is now known, all within the
+// tick that learned of it. A tick played again sends only the events the first time round did
+// not: a fruit the guess missed still makes its sound, one it picked up is not heard twice.
+// Events the guess sent that the real input would not have cannot be taken back.
+//
+// DEPTH bounds how late input may be. Restoring plus DEPTH ticks has to fit in one frame, which
+// bench/RollbackCheck measures.
+final class Rollback {
+    static final int DEPTH = 8;
+    private static final int SLOTS = DEPTH + 1; // The ticks that can be played again plus the next one
+    private static final int INITIAL_STATE_BYTES = 64 * 1024;
+
+    private final World world;
+    private final ByteBuffer[] states = new ByteBuffer[SLOTS]; // The world before tick t, in slot t % SLOTS
+    private final int[][] inputs;          // [slot][player] mask the tick was, or will be, played with
+    private final long[] confirmedThrough; // Per player, the last tick whose input is known
+    private final int[] lastConfirmed;     // Per player, the mask of that tick: the prediction
+    private final boolean[][] keys;        // Per player, the masks turned back into keys[]
+    private final EventLog events;         // Stands in front of the world's events
+    private Profiler profiler = Profiler.NONE;
+    private long tick;                     // The next tick to play
+    private long firstWrong = Long.MAX_VALUE; // Earliest played tick whose input turned out wrong
+    private long rollbacks;
+    private int lastReplayed;
+
+    Rollback(World world) {
+        this.world = world;
+        int players = world.players.length;
+        for (int i = 0; i < SLOTS; i++) {
+            states[i] = ByteBuffer.allocate(INITIAL_STATE_BYTES);
+        }
+        inputs = new int[SLOTS][players];
+        confirmedThrough = new long[players];
+        lastConfirmed = new int[players];
+        keys = new boolean[players][256];
+        events = new EventLog(world.setEvents(WorldEvents.NONE));
+        world.setEvents(events);
+        reset();
+    }
+
+    void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // Forgets the history, for a new or restored game; tick numbers start again at 0
+    void reset() {
+        tick = 0;
+        firstWrong = Long.MAX_VALUE;
+        for (int player = 0; player < confirmedThrough.length; player++) {
+            confirmedThrough[player] = -1;
+            lastConfirmed[player] = 0;
+        }
+    }
+
+    // The next tick to be played, which is what a player's input right now is for
+    long tick() {
+        return tick;
+    }
+
+    // A player's input for a tick, now or up to DEPTH ticks ago. Each player's input has to
+    // come in tick order.
+    void confirm(int player, long inputTick, int mask) {
+        if (inputTick > tick || inputTick != confirmedThrough[player] + 1) {
+            throw new IllegalArgumentException("input for tick " + inputTick + " out of order, expected "
+                    + (confirmedThrough[player] + 1));
+        }
+        if (inputTick < tick - DEPTH) {
+            throw new IllegalStateException("input for tick " + inputTick + " arrived more than " + DEPTH
+                    + " ticks late");
+        }
+        int[] played = inputs[(int) (inputTick % SLOTS)];
+        if (inputTick < tick && played[player] != mask) {
+            firstWrong = Math.min(firstWrong, inputTick);
+        }
+        played[player] = mask;
+        confirmedThrough[player] = inputTick;
+        lastConfirmed[player] = mask;
+    }
+
+    // Plays again whatever a late input got wrong, then plays the next tick
+    void advance() {
+        catchUp();
+        predict(tick);
+        play(tick);
+        tick++;
+    }
+
+    // True when every tick played so far used real input, so what the world shows is final
+    boolean settled() {
+        for (long confirmed : confirmedThrough) {
+            if (confirmed < tick - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // How many times a late input changed the past, and how many ticks the last such time replayed
+    long rollbacks() {
+        return rollbacks;
+    }
+
+    int lastReplayed() {
+        return lastReplayed;
+    }
+
+    // Plays again whatever a late input got wrong, so the world stands where the input known
+    // so far takes it. Ticks whose input is still missing are guessed again from the newest.
+    void catchUp() {
+        if (firstWrong == Long.MAX_VALUE) {
+            return;
+        }
+        long start = profiler.begin();
+        ByteBuffer state = states[(int) (firstWrong % SLOTS)];
+        state.rewind();
+        world.readFrom(state);
+        for (long t = firstWrong; t < tick; t++) {
+            predict(t);
+            events.replaying = true;
+            play(t);
+            events.replaying = false;
+            events.sendNew((int) (t % SLOTS));
+        }
+        rollbacks++;
+        lastReplayed = (int) (tick - firstWrong);
+        firstWrong = Long.MAX_VALUE;
+        profiler.end(Profiler.Span.ROLLBACK, start);
+    }
+
+    // Players whose input for tick t has not arrived press what they pressed last
+    private void predict(long t) {
+        int[] masks = inputs[(int) (t % SLOTS)];
+        for (int player = 0; player < masks.length; player++) {
+            if (confirmedThrough[player] < t) {
+                masks[player] = lastConfirmed[player];
+            }
+        }
+    }
+
+    // Keeps the world as it is before playing tick t with that tick's masks
+    private void play(long t) {
+        int slot = (int) (t % SLOTS);
+        save(slot);
+        events.startTick(slot);
+        int[] masks = inputs[slot];
+        for (int player = 0; player < masks.length; player++) {
+            InputRecording.unmask(masks[player], keys[player]);
+        }
+        world.tick(keys[0], keys[keys.length - 1]);
+    }
+
+    private void save(int slot) {
+        while (true) {
+            ByteBuffer state = states[slot];
+            state.clear();
+            try {
+                world.writeTo(state);
+                state.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                states[slot] = ByteBuffer.allocate(state.capacity() * 2);
+            }
+        }
+    }
+
+    // Keeps what each tick in the history sent. A tick played for the first time sends as it
+    // goes; one played again is held back and then sends only what its slot has no match for.
+    // Events are ints, kind in the low bits and the level or hazard above, so nothing allocates.
+    private static final class EventLog implements WorldEvents {
+        private static final int FRUIT = 0;
+        private static final int POWER_UP = 1;
+        private static final int HIT = 2;
+        private static final int LEVEL_UP = 3;
+        private static final int GAME_OVER = 4;
+        private static final int JUMPED = 5;
+        private static final int KIND_BITS = 3;
+        private static final World.Hazard[] HAZARDS = World.Hazard.values();
+
+        private final WorldEvents target;
+        private final int[][] sent = new int[SLOTS][8]; // [slot] events the tick has sent so far
+        private final int[] sentCount = new int[SLOTS];
+        private int[] replayed = new int[8];
+        private int replayedCount;
+        private boolean[] matched = new boolean[8];
+        private int slot;
+        boolean replaying;
+
+        EventLog(WorldEvents target) {
+            this.target = target;
+        }
+
+        void startTick(int slot) {
+            this.slot = slot;
+            if (replaying) {
+                replayedCount = 0;
+            } else {
+                sentCount[slot] = 0;
+            }
+        }
+
+        // After a tick played again: sends its events the slot has not sent yet, and adds them
+        void sendNew(int slot) {
+            int count = sentCount[slot];
+            if (matched.length < count) {
+                matched = new boolean[sent[slot].length];
+            }
+            Arrays.fill(matched, 0, count, false);
+            for (int i = 0; i < replayedCount; i++) {
+                int event = replayed[i];
+                int j = 0;
+                while (j < count && (matched[j] || sent[slot][j] != event)) {
+                    j++;
+                }
+                if (j < count) {
+                    matched[j] = true;
+                } else {
+                    sentCount[slot] = append(slot, event);
+                    send(event);
+                }
+            }
+        }
+
+        private int append(int slot, int event) {
+            int count = sentCount[slot];
+            if (count == sent[slot].length) {
+                sent[slot] = Arrays.copyOf(sent[slot], count * 2);
+            }
+            sent[slot][count] = event;
+            return count + 1;
+        }
+
+        private void log(int event) {
+            if (replaying) {
+                if (replayedCount == replayed.length) {
+                    replayed = Arrays.copyOf(replayed, replayedCount * 2);
+                }
+                replayed[replayedCount++] = event;
+            } else {
+                sentCount[slot] = append(slot, event);
+                send(event);
+            }
+        }
+
+        private void send(int event) {
+            int value = event >>> KIND_BITS;
+            switch (event & ((1 << KIND_BITS) - 1)) {
+                case FRUIT:
+                    target.fruitCollected();
+                    break;
+                case POWER_UP:
+                    target.powerUpCollected();
+                    break;
+                case HIT:
+                    target.playerHit(HAZARDS[value]);
+                    break;
+                case LEVEL_UP:
+                    target.levelUp(value);
+                    break;
+                case GAME_OVER:
+                    target.gameOver();
+                    break;
+                default:
+                    target.jumped();
+                    break;
+            }
+        }
+
+        @Override
+        public void fruitCollected() {
+            log(FRUIT);
+        }
+
+        @Override
+        public void powerUpCollected() {
+            log(POWER_UP);
+        }
+
+        @Override
+        public void playerHit(World.Hazard hazard) {
+            log(hazard.ordinal() << KIND_BITS | HIT);
+        }
+
+        @Override
+        public void levelUp(int level) {
+            log(level << KIND_BITS | LEVEL_UP);
+        }
+
+        @Override
+        public void gameOver() {
+            log(GAME_OVER);
+        }
+
+        @Override
+        public void jumped() {
+            log(JUMPED);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package forestrunner;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class SoundManager {
+    // Music tracks, one per level in turn; files that are missing are skipped
+    private static final String[] MUSIC_TRACKS = {
+            "sounds/background.wav", "sounds/background2.wav", "sounds/background3.wav"
+    };
+    private static final int MUSIC_RING_FRAMES = 32 * 1024;             // ~0.75 s of buffered music
+    private static final int CROSSFADE_FRAMES = (int) (AudioMixer.SAMPLE_RATE * 2);
+    private static final int FADE_OUT_FRAMES = (int) (AudioMixer.SAMPLE_RATE / 4);
+    private static final float MUSIC_GAIN = 0.3f;                       // Background music quieter
+
+    // Samples are decoded by asset loader threads; playback goes through the mixer's queue
+    private volatile AudioMixer.Sample collectSound;
+    private volatile AudioMixer.Sample jumpSound;
+    private volatile AudioMixer.Sample hitSound;
+    private volatile AudioMixer.Sample gameOverSound;
+    private volatile AudioMixer.Sample levelUpSound;
+
+    private final AudioMixer mixer;
+    private final String[] musicTracks;
+    private volatile boolean soundEnabled = true;
+    private float masterVolume = 0.5f;
+    private int musicLevel = 1;
+    private String currentTrack; // Null while no music is playing
+
+    public SoundManager() {
+        this(16, 1024, AudioMixer.VoiceStealing.OLDEST);
+    }
+
+    public SoundManager(int voices, int bufferFrames, AudioMixer.VoiceStealing stealing) {
+        mixer = new AudioMixer(voices, bufferFrames, stealing);
+        mixer.setMasterGain(masterVolume);
+        if (!mixer.start()) {
+            soundEnabled = false;
+        }
+        musicTracks = Arrays.stream(MUSIC_TRACKS).filter(path -> new File(path).exists()).toArray(String[]::new);
+    }
+
+    // Queues every sample on the loader; sounds are optional so the game can start before they arrive
+    public void loadSounds(AssetLoader loader) {
+        try {
+            // Create sounds directory if it doesn't exist
+            File soundsDir = new File("sounds");
+            if (!soundsDir.exists()) {
+                soundsDir.mkdirs();
+                System.out.println("Created sounds directory. Please add sound files:");
+                System.out.println("- background.wav (background music, plus optional background2.wav, background3.wav)");
+                System.out.println("- collect.wav (fruit collection sound)");
+                System.out.println("- jump.wav (jump sound)");
+                System.out.println("- hit.wav (damage sound)");
+                System.out.println("- gameover.wav (game over sound)");
+                System.out.println("- levelup.wav (level up sound)");
+            }
+
+            // A missing or unreadable file leaves its sample null, which plays as silence
+            loader.submit("sounds/collect.wav", false, () -> collectSound = AudioMixer.load("sounds/collect.wav"));
+            loader.submit("sounds/jump.wav", false, () -> jumpSound = AudioMixer.load("sounds/jump.wav"));
+            loader.submit("sounds/hit.wav", false, () -> hitSound = AudioMixer.load("sounds/hit.wav"));
+            loader.submit("sounds/gameover.wav", false, () -> gameOverSound = AudioMixer.load("sounds/gameover.wav"));
+            loader.submit("sounds/levelup.wav", false, () -> levelUpSound = AudioMixer.load("sounds/levelup.wav"));
+            // Music is not loaded up front; it streams from disk while it plays
+
+        } catch (Exception e) {
+            System.out.println("Sound files not found, running without audio");
+            soundEnabled = false;
+        }
+    }
+
+    public void setMasterVolume(float volume) {
+        this.masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+        mixer.setMasterGain(masterVolume);
+    }
+
+    // Plays the track for the last level passed to playLevelMusic
+    public void playBackgroundMusic() {
+        playLevelMusic(musicLevel);
+    }
+
+    // Crossfades to the level's track; keeps playing if it is the one already on
+    public synchronized void playLevelMusic(int level) {
+        musicLevel = level;
+        if (!soundEnabled || musicTracks.length == 0) return;
+
+        String track = musicTracks[(level - 1) % musicTracks.length];
+        if (track.equals(currentTrack)) {
+            return;
+        }
+        int fade = currentTrack == null ? FADE_OUT_FRAMES : CROSSFADE_FRAMES;
+        currentTrack = track;
+        mixer.playMusic(new MusicStream(track, MUSIC_RING_FRAMES), MUSIC_GAIN, fade);
+        System.out.println("Background music: " + track);
+    }
+
+    public synchronized void stopBackgroundMusic() {
+        if (currentTrack == null) return;
+
+        currentTrack = null;
+        mixer.playMusic(null, 0f, FADE_OUT_FRAMES);
+        System.out.println("Background music stopped");
+    }
+
+    public void playCollectSound() {
+        playSound(collectSound);
+    }
+
+    public void playJumpSound() {
+        playSound(jumpSound);
+    }
+
+    public void playHitSound() {
+        playSound(hitSound);
+    }
+
+    public void playGameOverSound() {
+        stopBackgroundMusic();
+        playSound(gameOverSound);
+    }
+
+    public void playLevelUpSound() {
+        playSound(levelUpSound);
+    }
+
+    // Each call starts a new voice, so quick repeats overlap instead of cutting each other off
+    private void playSound(AudioMixer.Sample sample) {
+        if (!soundEnabled) return;
+        mixer.play(sample, 1.0f, false);
+    }
+
+    public void toggleSound() {
+        soundEnabled = !soundEnabled;
+        if (!soundEnabled) {
+            stopBackgroundMusic();
+        } else {
+            playBackgroundMusic();
+        }
+        System.out.println("Sound " + (soundEnabled ? "enabled" : "disabled"));
+    }
+
+    public boolean isSoundEnabled() {
+        return soundEnabled;
+    }
+
+    // Method untuk cleanup saat game ditutup
+    public void cleanup() {
+        mixer.stop();
+        System.out.println("Sound system cleaned up");
+    }
+}
\ No newline at end of file
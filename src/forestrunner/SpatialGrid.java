@@ -0,0 +1,131 @@
+package forestrunner;
+
+import java.util.Arrays;
+
+// Broad phase for a side-scroller: entity ids are bucketed by their left edge into fixed-width
+// columns along x, so a query only looks at the few columns around the player no matter how
+// long the level is. Each id lives in exactly one cell; queries are widened by the widest
+// entity so ones that straddle a cell border are still found.
+// The column table grows with the level up to MAX_CELLS and then wraps around, so an endless
+// run reuses the same buckets; columns that share a bucket are told apart by the narrow phase.
+// A bucket that empties hands its array on to the next new one, so an endless run that keeps
+// entering new columns and leaving old ones allocates none.
+final class SpatialGrid {
+    static final int CELL_SIZE = 256;
+    private static final int MAX_CELLS = 4096; // 1M px before buckets are shared
+
+    private int[][] cells = new int[16][];
+    private int[] counts = new int[16];
+    private int[][] spare = new int[16][]; // Arrays of buckets that emptied, for new ones
+    private int spareCount;
+    private int maxWidth = 0;
+    private boolean wrapped = false;
+
+    // The buckets go to the spare arrays: a restore that moves the world elsewhere in the level
+    // would otherwise leave them in columns nothing enters for a while
+    void clear() {
+        for (int bucket = 0; bucket < cells.length; bucket++) {
+            if (cells[bucket] != null) {
+                recycle(bucket);
+            }
+        }
+        Arrays.fill(counts, 0);
+        wrapped = false;
+    }
+
+    void insert(int id, int x, int width) {
+        if (width > maxWidth) {
+            maxWidth = width;
+        }
+        add(cellOf(x), id);
+    }
+
+    void remove(int id, int x) {
+        removeFrom(bucketOf(cellOf(x)), id);
+    }
+
+    // Incremental update for moving entities; only touches the grid when the cell changes
+    void moved(int id, int oldX, int newX) {
+        int from = cellOf(oldX);
+        int to = cellOf(newX);
+        if (from != to) {
+            removeFrom(bucketOf(from), id);
+            add(to, id);
+        }
+    }
+
+    // Cells that can hold an entity overlapping [minX, maxX]; iterate with count() and get()
+    int firstCell(int minX) {
+        return cellOf(minX - maxWidth);
+    }
+
+    int lastCell(int maxX) {
+        int cell = cellOf(maxX);
+        return wrapped ? cell : Math.min(cell, cells.length - 1);
+    }
+
+    int count(int cell) {
+        return counts[bucketOf(cell)];
+    }
+
+    int get(int cell, int index) {
+        return cells[bucketOf(cell)][index];
+    }
+
+    // Swap-remove: safe while iterating a cell from the back
+    private void removeFrom(int bucket, int id) {
+        int[] items = cells[bucket];
+        for (int i = counts[bucket] - 1; i >= 0; i--) {
+            if (items[i] == id) {
+                items[i] = items[--counts[bucket]];
+                if (counts[bucket] == 0) {
+                    recycle(bucket);
+                }
+                return;
+            }
+        }
+    }
+
+    private void add(int cell, int id) {
+        if (cell >= cells.length && !wrapped) {
+            if (cell < MAX_CELLS) {
+                // Every cell so far maps to itself, so growing is a plain copy
+                int length = Integer.highestOneBit(cell) * 2;
+                cells = Arrays.copyOf(cells, length);
+                counts = Arrays.copyOf(counts, length);
+            } else {
+                if (cells.length < MAX_CELLS) {
+                    cells = Arrays.copyOf(cells, MAX_CELLS);
+                    counts = Arrays.copyOf(counts, MAX_CELLS);
+                }
+                wrapped = true;
+            }
+        }
+        int bucket = bucketOf(cell);
+        int[] items = cells[bucket];
+        if (items == null) {
+            items = cells[bucket] = spareCount > 0 ? spare[--spareCount] : new int[8];
+            spare[spareCount] = null;
+        } else if (counts[bucket] == items.length) {
+            items = cells[bucket] = Arrays.copyOf(items, items.length * 2);
+        }
+        items[counts[bucket]++] = id;
+    }
+
+    private void recycle(int bucket) {
+        if (spareCount == spare.length) {
+            spare = Arrays.copyOf(spare, spare.length * 2);
+        }
+        spare[spareCount++] = cells[bucket];
+        cells[bucket] = null;
+    }
+
+    // Table length is a power of two, so wrapping is a mask
+    private int bucketOf(int cell) {
+        return cell & (cells.length - 1);
+    }
+
+    private static int cellOf(int x) {
+        return x <= 0 ? 0 : x / CELL_SIZE;
+    }
+}
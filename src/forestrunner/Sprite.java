@@ -0,0 +1,40 @@
+package forestrunner;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+
+// Immutable record of one decoded image file: whether it loaded, its size and what decoding it
+// cost. The pixels are not kept here; Assets.image() has them until SpriteAtlas has built its copies.
+final class Sprite {
+    final String path;
+    final long decodeNanos;
+    final long bytes;
+    private final int width;
+    private final int height;
+
+    Sprite(String path, BufferedImage image, long decodeNanos) {
+        this.path = path;
+        this.decodeNanos = decodeNanos;
+        this.bytes = image != null ? rasterBytes(image) : 0;
+        this.width = image != null ? image.getWidth() : 0;
+        this.height = image != null ? image.getHeight() : 0;
+    }
+
+    boolean isLoaded() {
+        return width > 0;
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    private static long rasterBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long bits = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType());
+        return bits / 8;
+    }
+}
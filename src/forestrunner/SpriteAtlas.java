@@ -0,0 +1,106 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Converts decoded sprites once into images that match the display's pixel format at the
+// exact size they are drawn, so every draw call is a plain 1:1 blit the pipeline can cache.
+// Entities look their images up when they are created and keep the reference.
+final class SpriteAtlas {
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    private SpriteAtlas() {}
+
+    // Returns null when the source image is missing so callers keep their fallback drawing
+    static BufferedImage scaled(String path, int width, int height) {
+        return get(path, width, height, false, 1.0f);
+    }
+
+    // The image at width x height with its horizontal mirror image below it, twice as tall:
+    // the atlas behind a SpriteSheet, so facing left is just another source rectangle
+    static BufferedImage mirrored(String path, int width, int height) {
+        return get(path, width, height, true, 1.0f);
+    }
+
+    // Variant with a constant opacity baked in instead of an AlphaComposite per draw
+    static BufferedImage faded(String path, int width, int height, float alpha) {
+        return get(path, width, height, false, alpha);
+    }
+
+    // A sprite drawn by code instead of decoded (the stand-in for a missing image file, an effect,
+    // a label): painted once, antialiased, into a translucent image under key, then blitted like
+    // any other
+    static BufferedImage painted(String key, int width, int height, Consumer<Graphics2D> painter) {
+        return images.computeIfAbsent(key, k -> {
+            BufferedImage result = createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            Graphics2D g = result.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            painter.accept(g);
+            g.dispose();
+            return result;
+        });
+    }
+
+    private static BufferedImage get(String path, int width, int height, boolean mirror, float alpha) {
+        Sprite sprite = Assets.sprite(path);
+        if (!sprite.isLoaded()) {
+            return null;
+        }
+        String key = path + '@' + width + 'x' + height + (mirror ? ":mirrored" : "") + (alpha < 1.0f ? ":" + alpha : "");
+        return images.computeIfAbsent(key, k -> {
+            BufferedImage source = Assets.image(path);
+            return source != null ? build(source, width, height, mirror, alpha) : null;
+        });
+    }
+
+    private static BufferedImage build(BufferedImage source, int width, int height, boolean mirror, float alpha) {
+        BufferedImage scaled = downscale(source, width, height);
+
+        int transparency = alpha < 1.0f ? Transparency.TRANSLUCENT : source.getColorModel().getTransparency();
+        BufferedImage result = createCompatibleImage(width, mirror ? height * 2 : height, transparency);
+        Graphics2D g = result.createGraphics();
+        if (alpha < 1.0f) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        }
+        g.drawImage(scaled, 0, 0, null);
+        if (mirror) {
+            g.setTransform(new AffineTransform(-1, 0, 0, 1, width, height));
+            g.drawImage(scaled, 0, 0, null);
+        }
+        g.dispose();
+        return result;
+    }
+
+    // Halve in steps while shrinking by more than 2x, one bilinear pass would skip most source pixels
+    private static BufferedImage downscale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        while (w != width || h != height) {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        }
+        return current;
+    }
+
+    // Also used for the cached render layers (ParallaxLayer, CachedLayer)
+    static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+            return new BufferedImage(width, height, type);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, transparency);
+    }
+}
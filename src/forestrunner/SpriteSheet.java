@@ -0,0 +1,60 @@
+package forestrunner;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// An image cut into a grid of equally sized frames. The whole sheet is scaled once into a
+// single atlas from SpriteAtlas, with its mirror image underneath for frames facing left, and
+// every entity of a type shares it: a thousand animals cost one atlas, not a thousand images.
+// Drawing a frame blits a source rectangle straight out of the atlas, with no sub-images.
+final class SpriteSheet {
+    private static final Map<String, SpriteSheet> sheets = new ConcurrentHashMap<>();
+
+    final int columns;
+    final int rows;
+    final int frameWidth;
+    final int frameHeight;
+    private final BufferedImage atlas;
+
+    private SpriteSheet(BufferedImage atlas, int columns, int rows, int frameWidth, int frameHeight) {
+        this.atlas = atlas;
+        this.columns = columns;
+        this.rows = rows;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+    }
+
+    // Frames are numbered left to right, top to bottom, and drawn at frameWidth x frameHeight.
+    // Returns null when the image is missing so callers keep their fallback drawing.
+    static SpriteSheet get(String path, int columns, int rows, int frameWidth, int frameHeight) {
+        String key = path + '@' + columns + 'x' + rows + ':' + frameWidth + 'x' + frameHeight;
+        SpriteSheet sheet = sheets.get(key);
+        if (sheet == null) {
+            BufferedImage atlas = SpriteAtlas.mirrored(path, columns * frameWidth, rows * frameHeight);
+            if (atlas == null) {
+                return null;
+            }
+            sheet = sheets.computeIfAbsent(key, k -> new SpriteSheet(atlas, columns, rows, frameWidth, frameHeight));
+        }
+        return sheet;
+    }
+
+    int frameCount() {
+        return columns * rows;
+    }
+
+    // mirrored draws the frame facing left; the mirrored half of the atlas has its columns reversed
+    void draw(Graphics g, int frame, boolean mirrored, int x, int y) {
+        int column = frame % columns;
+        int row = frame / columns;
+        if (mirrored) {
+            column = columns - 1 - column;
+            row += rows;
+        }
+        int sx = column * frameWidth;
+        int sy = row * frameHeight;
+        g.drawImage(atlas, x, y, x + frameWidth, y + frameHeight, sx, sy, sx + frameWidth, sy + frameHeight, null);
+    }
+}
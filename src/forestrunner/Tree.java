@@ -0,0 +1,44 @@
+package forestrunner;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+class Tree extends Entity {
+    private static final Color TRUNK = new Color(101, 67, 33);
+    private static final Color LEAVES = new Color(0, 128, 0);
+
+    // Image variables
+    private BufferedImage image; // Pre-scaled, shared with every other instance
+
+    public Tree() {
+        super(40, 80);
+        loadImage();
+    }
+
+    public Tree reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    private void loadImage() {
+        image = SpriteAtlas.scaled("images/tree.png", width, height);
+    }
+
+    public void draw(Graphics g, int cameraX) {
+        int screenX = x - cameraX;
+        if (image != null) {
+            // Draw image
+            g.drawImage(image, screenX, y, null);
+        } else {
+            // Fallback: draw simple tree
+            // Draw trunk
+            g.setColor(TRUNK);
+            g.fillRect(screenX + 15, y + 40, 10, 40);
+
+            // Draw leaves
+            g.setColor(LEAVES);
+            g.fillOval(screenX, y, width, 50);
+        }
+    }
+}
\ No newline at end of file
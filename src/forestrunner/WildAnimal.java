@@ -0,0 +1,282 @@
+package forestrunner;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+
+class WildAnimal extends Entity {
+    int prevX; // Position at the previous tick, for render interpolation
+    private int direction = 1;
+    private int baseSpeed = 2;
+    private int speed;
+    private int moveTimer = 0;
+    private int turnAt; // moveTimer value of the next random turn, drawn whenever the animal turns
+    private int patrolDistance = 100;
+    private int startX;
+    private final GameRandom random = new GameRandom(0); // Reseeded from the world's generator on reset
+    private long simulatedTick; // World tick this animal has been stepped to, -1 until World stamps it
+
+    // After this many ticks on one heading the animal may turn at random, with this chance per tick
+    private static final int TURN_AFTER = 120;
+    private static final double TURN_CHANCE = 0.05;
+
+    // animals.png is a single pose; the walk cycle bobs it every other step
+    private static final AnimationClip WALK = AnimationClip.of("walk", 266, true, 0, 0, 0, 0)
+            .withOffsetsY(0, -2, 0, -2);
+    private final Animation animation = new Animation(WALK);
+    private SpriteSheet sheet; // One atlas shared by every animal, both facing directions
+
+    // Animal type (affects appearance and behavior)
+    private int animalType;
+    private static final Color BEAR_BROWN = new Color(139, 69, 19);
+    private static final Color PIG_PINK = new Color(255, 192, 203);
+    private static final Color PIG_SNOUT = new Color(255, 160, 180);
+    private static final Color[] animalColors = {
+            Color.ORANGE, // Fox
+            BEAR_BROWN,   // Bear (brown)
+            Color.GRAY,   // Wolf
+            PIG_PINK      // Pig (pink)
+    };
+    // Scratch triangle for the wolf's ear, reused every frame
+    private static final int[] earXPoints = new int[3];
+    private static final int[] earYPoints = new int[3];
+
+    public WildAnimal() {
+        super(38, 42);
+        loadImage();
+    }
+
+    public WildAnimal reset(int x, int y, int gameSpeed, GameRandom worldRandom) {
+        this.x = x;
+        this.y = y;
+        this.startX = x;
+        this.prevX = x;
+        this.speed = baseSpeed + gameSpeed;
+        this.random.setSeed(worldRandom.nextLong());
+        this.animalType = random.nextInt(4);
+        this.direction = 1;
+        this.moveTimer = 0;
+        this.turnAt = TURN_AFTER + 1 + random.nextGeometric(TURN_CHANCE);
+        this.simulatedTick = -1;
+        this.animation.restart(WALK);
+        return this;
+    }
+
+    private void loadImage() {
+        sheet = SpriteSheet.get("images/animals.png", 1, 1, width, height);
+    }
+
+    // Snapshot state, in the order WorldSnapshot's layout lists it. Speed and the patrol come
+    // from the level the animal was spawned on, so they are saved rather than recomputed.
+    void writeTo(ByteBuffer out) {
+        out.putInt(x).putInt(y).putInt(prevX).putInt(startX).putInt(patrolDistance).putInt(speed)
+                .put((byte) direction).putInt(moveTimer).putInt(turnAt).put((byte) animalType)
+                .putLong(random.state()).putLong(simulatedTick).putLong(animation.elapsedMicros());
+    }
+
+    public WildAnimal readFrom(ByteBuffer in) {
+        this.x = in.getInt();
+        this.y = in.getInt();
+        this.prevX = in.getInt();
+        this.startX = in.getInt();
+        this.patrolDistance = in.getInt();
+        this.speed = in.getInt();
+        this.direction = in.get();
+        this.moveTimer = in.getInt();
+        this.turnAt = in.getInt();
+        this.animalType = in.get();
+        this.random.setSeed(in.getLong());
+        this.simulatedTick = in.getLong();
+        this.animation.restore(WALK, in.getLong());
+        return this;
+    }
+
+    public void savePosition() {
+        prevX = x;
+    }
+
+    // One tick of patrol
+    public void update() {
+        advance(1);
+    }
+
+    // Sets the tick a newly spawned animal starts from; later calls do nothing
+    void spawnedAt(long tick) {
+        if (simulatedTick < 0) {
+            simulatedTick = tick;
+        }
+    }
+
+    // World's step: catches up on the ticks missed while dormant, then takes this tick's step
+    void updateTo(long tick) {
+        if (tick - 1 > simulatedTick) {
+            advance(tick - 1 - simulatedTick);
+        }
+        savePosition();
+        advance(1);
+        simulatedTick = tick;
+    }
+
+    // How far this animal moved on the given tick; 0 when it slept through it
+    int stepDx(long tick) {
+        return simulatedTick == tick ? x - prevX : 0;
+    }
+
+    // True when nowhere on its patrol (plus the overshoot before it turns) can reach [minX, maxX]
+    boolean isDormant(int minX, int maxX) {
+        return startX + patrolDistance + speed + width < minX || startX - patrolDistance - speed > maxX;
+    }
+
+    // Walks back and forth within the patrol area, turning at its edges or at random once
+    // TURN_AFTER ticks have passed. Between turns the walk is a straight line, so this jumps
+    // from turn to turn and a long dormant stretch costs one step per turn, not per tick.
+    private void advance(long ticks) {
+        long remaining = ticks;
+        while (remaining > 0) {
+            long untilTurn = ticksUntilTurn();
+            if (untilTurn > remaining) {
+                x += direction * speed * (int) remaining;
+                moveTimer += (int) remaining;
+                break;
+            }
+            x += direction * speed * (int) untilTurn;
+            direction = -direction;
+            moveTimer = 0;
+            turnAt = TURN_AFTER + 1 + random.nextGeometric(TURN_CHANCE);
+            remaining -= untilTurn;
+        }
+        animation.advance(ticks * World.TICK_MICROS);
+    }
+
+    // Ticks until the step that crosses the patrol edge or reaches turnAt, whichever is first
+    private long ticksUntilTurn() {
+        int toEdge = direction > 0
+                ? Math.floorDiv(startX + patrolDistance - x, speed) + 1
+                : Math.floorDiv(x - (startX - patrolDistance), speed) + 1;
+        return Math.max(1, Math.min(toEdge, turnAt - moveTimer));
+    }
+
+    public void draw(Graphics g, int cameraX, float alpha) {
+        int screenX = prevX + Math.round((x - prevX) * alpha) - cameraX;
+        if (sheet != null) {
+            sheet.draw(g, animation.frame(), direction == -1, screenX, y + animation.offsetY());
+        } else {
+            // Enhanced fallback drawing
+            drawFallbackAnimal(g, screenX);
+        }
+    }
+
+    private void drawFallbackAnimal(Graphics g, int screenX) {
+        // Walk bob from the animation
+        int drawY = y + animation.offsetY();
+
+        // Draw animal body based on type
+        g.setColor(animalColors[animalType]);
+
+        switch (animalType) {
+            case 0: // Fox
+                drawFox(g, screenX, drawY);
+                break;
+            case 1: // Bear
+                drawBear(g, screenX, drawY);
+                break;
+            case 2: // Wolf
+                drawWolf(g, screenX, drawY);
+                break;
+            case 3: // Pig
+                drawPig(g, screenX, drawY);
+                break;
+        }
+    }
+
+    private void drawFox(Graphics g, int screenX, int drawY) {
+        // Body
+        g.setColor(Color.ORANGE);
+        g.fillOval(screenX, drawY, width, height);
+
+        // Tail
+        g.fillOval(screenX + width - 5, drawY + 5, 15, 8);
+
+        // Ears
+        int earX = direction == 1 ? screenX + width - 10 : screenX + 5;
+        g.fillOval(earX, drawY - 5, 8, 10);
+
+        // Eyes
+        g.setColor(Color.BLACK);
+        int eyeX = direction == 1 ? screenX + width - 15 : screenX + 8;
+        g.fillOval(eyeX, drawY + 5, 3, 3);
+        g.fillOval(eyeX + 5, drawY + 5, 3, 3);
+    }
+
+    private void drawBear(Graphics g, int screenX, int drawY) {
+        // Body (larger)
+        g.setColor(BEAR_BROWN);
+        g.fillOval(screenX - 2, drawY - 2, width + 4, height + 4);
+
+        // Ears
+        g.fillOval(screenX + 5, drawY - 5, 6, 6);
+        g.fillOval(screenX + width - 11, drawY - 5, 6, 6);
+
+        // Eyes
+        g.setColor(Color.BLACK);
+        g.fillOval(screenX + 8, drawY + 5, 4, 4);
+        g.fillOval(screenX + width - 12, drawY + 5, 4, 4);
+
+        // Nose
+        g.fillOval(screenX + width/2 - 1, drawY + 12, 3, 2);
+    }
+
+    private void drawWolf(Graphics g, int screenX, int drawY) {
+        // Body
+        g.setColor(Color.GRAY);
+        g.fillRect(screenX, drawY, width, height);
+
+        // Snout
+        int snoutX = direction == 1 ? screenX + width : screenX - 8;
+        g.fillRect(snoutX, drawY + 8, 8, 8);
+
+        // Ears
+        int earX = direction == 1 ? screenX + width - 8 : screenX + 3;
+        earXPoints[0] = earX;
+        earXPoints[1] = earX + 5;
+        earXPoints[2] = earX + 2;
+        earYPoints[0] = drawY;
+        earYPoints[1] = drawY - 8;
+        earYPoints[2] = drawY;
+        g.fillPolygon(earXPoints, earYPoints, 3);
+
+        // Eyes
+        g.setColor(Color.RED);
+        int eyeX = direction == 1 ? screenX + width - 15 : screenX + 8;
+        g.fillOval(eyeX, drawY + 5, 3, 3);
+        g.fillOval(eyeX + 6, drawY + 5, 3, 3);
+    }
+
+    private void drawPig(Graphics g, int screenX, int drawY) {
+        // Body
+        g.setColor(PIG_PINK);
+        g.fillOval(screenX, drawY, width, height);
+
+        // Snout
+        g.setColor(PIG_SNOUT);
+        int snoutX = direction == 1 ? screenX + width - 5 : screenX;
+        g.fillOval(snoutX, drawY + 10, 8, 6);
+
+        // Ears
+        g.setColor(PIG_PINK);
+        g.fillOval(screenX + 5, drawY - 3, 6, 8);
+        g.fillOval(screenX + width - 11, drawY - 3, 6, 8);
+
+        // Eyes
+        g.setColor(Color.BLACK);
+        g.fillOval(screenX + 8, drawY + 5, 3, 3);
+        g.fillOval(screenX + width - 11, drawY + 5, 3, 3);
+
+        // Nostrils
+        g.fillOval(snoutX + 2, drawY + 12, 1, 1);
+        g.fillOval(snoutX + 4, drawY + 12, 1, 1);
+
+        // Tail (curly)
+        g.setColor(PIG_PINK);
+        g.drawArc(screenX + width - 10, drawY + 2, 8, 8, 0, 270);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,659 @@
+package forestrunner;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// The game simulation without a window: players, entity stores, level progression, collisions
+// and the cameras. ForestRunner drives it from the game loop and draws it; benchmarks and other
+// headless tools drive it directly. It never touches Swing, painting or sound. What the shell
+// needs to react to comes out through WorldEvents, and input comes in as a keys[] array per
+// player. Two players share one level, score and lives count each, and each has a camera of
+// its own for a split screen; the game is over once both are out.
+final class World {
+    // The simulation only ever advances in steps of this length
+    static final int TICKS_PER_SECOND = 60;
+    static final int TICK_MICROS = 1_000_000 / TICKS_PER_SECOND;
+
+    // Animals and power-ups further than this outside the view go dormant. It has to cover how
+    // far the player can get ahead of the lagging camera plus what the bot looks ahead.
+    static final int ACTIVE_MARGIN = 300;
+    // Below this many awake animals and power-ups the update phase is not worth forking
+    static final int PARALLEL_THRESHOLD = 512;
+    private static final int UPDATE_CHUNKS = 8; // Fork-join tasks the awake entities split into
+
+    // What took the player's last life (or did the damage, while still alive)
+    enum Hazard {
+        OBSTACLE, ANIMAL
+    }
+    private static final Hazard[] HAZARDS = Hazard.values(); // values() copies; restores run every rollback
+
+    private final int groundY;
+    private final int viewWidth;
+    private final boolean endless;
+    private WorldEvents events; // With Rollback, its log of what each tick sent
+    private final GameRandom random = new GameRandom(0);
+    private long seed;
+    private long tickCount; // Ticks since reset; dormant entities catch up to it
+    private int activeMinX; // Range that keeps entities awake this tick
+    private int activeMaxX;
+    private int activeAnimals;
+    private int[] awake = new int[64]; // Update indexes of the entities awake this tick
+    private int awakeCount;
+    private UpdateChunk[] updateChunks; // Built on the first forked update, reused every tick after
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+    private Thread updateCaller; // Parked in forkUpdate() until the pool has run its chunks
+    private int maxAnimalStep; // Widest x step an animal took this tick, widens the animal query
+    private final ContactList contacts = new ContactList();
+
+    // What a contact in the ContactList hit; contacts at the same instant resolve in this order
+    private static final int CONTACT_FRUIT = 0;
+    private static final int CONTACT_POWER_UP = 1;
+    private static final int CONTACT_OBSTACLE = 2;
+    private static final int CONTACT_ANIMAL = 3;
+
+    boolean gameOver = false;
+    int score = 0;
+    int level = 1;
+    int gameSpeed = 1; // Increases with level
+    int cameraX = 0;          // The rearmost living player's view; with one player, their view
+    int previousCameraX = 0;
+    private int frontCameraX; // The frontmost living player's view
+
+    Player player;             // The first player; single-player code only ever needs this one
+    final Player[] players;    // Created by the first reset()
+    final int[] cameras;       // Each player's view, eased towards them every tick
+    final int[] previousCameras;
+    // Each store keeps bounds in parallel arrays and its own spatial grid for the broad phase
+    // Each store recycles what it removes through its pool, across levels and restarts
+    final EntityStore<Fruit> fruits = new EntityStore<>(new EntityPool<>(Fruit::new));
+    final EntityStore<WildAnimal> animals = new EntityStore<>(new EntityPool<>(WildAnimal::new));
+    final EntityStore<PowerUp> powerUps = new EntityStore<>(new EntityPool<>(PowerUp::new));
+    final EntityStore<Obstacle> obstacles = new EntityStore<>(new EntityPool<>(Obstacle::new));
+    LevelStreamer streamer; // Only in endless mode, replaces generateLevel()
+    Hazard lastHit;         // Null until the player first takes damage
+    Profiler profiler = Profiler.NONE; // Times the update and collision phases of a tick
+    ForkJoinPool updatePool;           // Runs large update phases in parallel; null keeps them serial
+
+    World(int groundY, int viewWidth, boolean endless, WorldEvents events) {
+        this(groundY, viewWidth, endless, events, 1);
+    }
+
+    // viewWidth is one player's view, so half the screen for a split screen
+    World(int groundY, int viewWidth, boolean endless, WorldEvents events, int playerCount) {
+        this.groundY = groundY;
+        this.viewWidth = viewWidth;
+        this.endless = endless;
+        this.events = events;
+        players = new Player[playerCount];
+        cameras = new int[playerCount];
+        previousCameras = new int[playerCount];
+    }
+
+    // A fresh game at level 1. The same seed and the same keys every tick replay the same game.
+    void reset(long seed) {
+        reset(seed, 1);
+    }
+
+    // A fresh game starting at the given level; levels above 1 are mostly for benchmarks
+    void reset(long seed, int startLevel) {
+        this.seed = seed;
+        random.setSeed(seed);
+        score = 0;
+        level = startLevel;
+        gameOver = false;
+        lastHit = null;
+
+        // PERUBAHAN DI SINI: Gunakan player.height untuk posisi Y
+        // player = new Player(50, GROUND_Y - 50); // Baris asli
+        // Kita inisialisasi pemain dulu agar player.height terisi dari gambar.
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == null) {
+                players[i] = new Player(50, 0); // Posisi Y awal tidak terlalu penting di sini karena akan di-adjust
+            } else {
+                players[i].reset(50, 0); // Restart: pemain yang sama dipakai ulang
+            }
+
+            // Setelah player diinisialisasi, baru kita bisa menggunakan player.height-nya
+            // Posisi Y akan diatur agar bagian bawah pemain tepat di GROUND_Y
+            players[i].y = groundY - players[i].height;
+        }
+        player = players[0];
+
+        fruits.clear();
+        animals.clear();
+        powerUps.clear();
+        obstacles.clear();
+        resetCameras();
+        tickCount = 0;
+
+        if (endless) {
+            streamer = new LevelStreamer(seed, groundY, viewWidth, fruits, animals, powerUps, obstacles);
+            gameSpeed = 1;
+            streamer.update(cameraX, frontCameraX);
+            stampSpawned();
+        } else {
+            generateLevel();
+        }
+    }
+
+    // The whole game state for WorldSnapshot: everything a tick reads, so a restored World
+    // continues exactly as this one would. Entities go store by store in slot order, so the
+    // restored stores hold them in the same slots.
+    void writeTo(ByteBuffer out) {
+        out.put((byte) (endless ? 1 : 0)).putLong(seed).putLong(random.state()).putLong(tickCount)
+                .put((byte) (gameOver ? 1 : 0)).putInt(score).putInt(level).putInt(gameSpeed)
+                .putInt(cameraX).putInt(previousCameraX).putInt(frontCameraX)
+                .put((byte) (lastHit == null ? -1 : lastHit.ordinal())).put((byte) players.length);
+        for (int i = 0; i < players.length; i++) {
+            players[i].writeTo(out);
+            out.putInt(cameras[i]).putInt(previousCameras[i]);
+        }
+        if (streamer != null) {
+            streamer.writeTo(out);
+        }
+        out.putInt(fruits.size());
+        for (int i = 0; i < fruits.size(); i++) {
+            fruits.get(i).writeTo(out);
+        }
+        out.putInt(animals.size());
+        for (int i = 0; i < animals.size(); i++) {
+            animals.get(i).writeTo(out);
+        }
+        out.putInt(powerUps.size());
+        for (int i = 0; i < powerUps.size(); i++) {
+            powerUps.get(i).writeTo(out);
+        }
+        out.putInt(obstacles.size());
+        for (int i = 0; i < obstacles.size(); i++) {
+            obstacles.get(i).writeTo(out);
+        }
+    }
+
+    // Replaces the game in progress with what writeTo() saved; needs the players from a reset().
+    // Allocation-free once the pools hold enough entities, since Rollback restores every tick.
+    void readFrom(ByteBuffer in) {
+        if ((in.get() != 0) != endless) {
+            throw new IllegalArgumentException(endless ? "snapshot is not of an endless run" : "snapshot is of an endless run");
+        }
+        seed = in.getLong();
+        random.setSeed(in.getLong());
+        tickCount = in.getLong();
+        gameOver = in.get() != 0;
+        score = in.getInt();
+        level = in.getInt();
+        gameSpeed = in.getInt();
+        cameraX = in.getInt();
+        previousCameraX = in.getInt();
+        frontCameraX = in.getInt();
+        int hazard = in.get();
+        lastHit = hazard < 0 ? null : HAZARDS[hazard];
+        int playerCount = in.get();
+        if (playerCount != players.length) {
+            throw new IllegalArgumentException("snapshot has " + playerCount + " players, this game " + players.length);
+        }
+        for (int i = 0; i < players.length; i++) {
+            players[i].readFrom(in);
+            cameras[i] = in.getInt();
+            previousCameras[i] = in.getInt();
+        }
+        if (endless) {
+            if (streamer == null || streamer.seed() != seed) {
+                streamer = new LevelStreamer(seed, groundY, viewWidth, fruits, animals, powerUps, obstacles);
+            }
+            streamer.readFrom(in);
+        }
+
+        fruits.clear();
+        animals.clear();
+        powerUps.clear();
+        obstacles.clear();
+        for (int i = in.getInt(); i > 0; i--) {
+            fruits.add(fruits.obtain().readFrom(in), 0);
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            animals.add(animals.obtain().readFrom(in), 0);
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            PowerUp powerUp = powerUps.obtain().readFrom(in);
+            powerUps.add(powerUp, powerUp.type);
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            obstacles.add(obstacles.obtain().readFrom(in), 0);
+        }
+    }
+
+    void generateLevel() {
+        FlightEvents.LevelGenerated event = FlightEvents.LevelGenerated.start();
+        fruits.clear();
+        animals.clear();
+        powerUps.clear();
+        obstacles.clear();
+
+        gameSpeed = 1 + (level - 1) / 3;
+
+        // Sesuaikan offset y di sini jika buah masih melayang/tenggelam
+        for (int i = 0; i < 10 + level * 3; i++) {
+            int x = 200 + i * 120 + random.nextInt(80);
+            // Angka 30 ini adalah offset. Kurangi untuk 'menurunkan' buah, tambah untuk 'menaikkan' buah.
+            int fruitYOffset = 30; // Sesuaikan jika perlu
+            int y = groundY - fruitYOffset - random.nextInt(50);
+            fruits.add(fruits.obtain().reset(x, y, random), 0);
+        }
+
+        // Sesuaikan offset y di sini jika hewan masih melayang/tenggelam
+        for (int i = 0; i < 3 + level * 2; i++) {
+            int x = 300 + i * 250 + random.nextInt(100);
+            // Angka 40 ini adalah offset. Kurangi untuk 'menurunkan' hewan, tambah untuk 'menaikkan' hewan.
+            int animalYOffset = 40; // Sesuaikan jika perlu
+            animals.add(animals.obtain().reset(x, groundY - animalYOffset, gameSpeed, random), 0);
+        }
+
+        if (level % 3 == 0) {
+            // Sesuaikan offset y di sini jika power-up masih melayang/tenggelam
+            for (int i = 0; i < 2; i++) {
+                int x = 400 + i * 300 + random.nextInt(100);
+                // Angka 30 ini adalah offset. Kurangi untuk 'menurunkan' power-up, tambah untuk 'menaikkan' power-up.
+                int powerUpYOffset = 30; // Sesuaikan jika perlu
+                int y = groundY - powerUpYOffset - random.nextInt(30);
+                PowerUp powerUp = powerUps.obtain().reset(x, y, random);
+                powerUps.add(powerUp, powerUp.type);
+            }
+        }
+
+        if (level >= 2) {
+            // Sesuaikan offset y di sini jika rintangan masih melayang/tenggelam
+            for (int i = 0; i < level; i++) {
+                int x = 500 + i * 200 + random.nextInt(100);
+                // Angka 40 ini adalah offset. Kurangi untuk 'menurunkan' rintangan, tambah untuk 'menaikkan' rintangan.
+                int obstacleYOffset = 40; // Sesuaikan jika perlu
+                obstacles.add(obstacles.obtain().reset(x, groundY - obstacleYOffset), 0);
+            }
+        }
+        stampSpawned();
+        if (event != null) {
+            event.finish(level, -1, fruits.size(), animals.size(), powerUps.size(), obstacles.size());
+        }
+    }
+
+    // Entities spawned during this tick are first stepped on the next one, dormant or not
+    private void stampSpawned() {
+        for (int i = 0; i < animals.size(); i++) {
+            animals.get(i).spawnedAt(tickCount);
+        }
+        for (int i = 0; i < powerUps.size(); i++) {
+            powerUps.get(i).spawnedAt(tickCount);
+        }
+    }
+
+    // Where events go from now on; returns where they went until now
+    WorldEvents setEvents(WorldEvents events) {
+        WorldEvents previous = this.events;
+        this.events = events;
+        return previous;
+    }
+
+    // One fixed simulation step; does nothing once the game is over. With two players every
+    // player reads the same keys.
+    void tick(boolean[] keys) {
+        tick(keys, keys);
+    }
+
+    // One step of a two-player game; secondKeys is ignored with one player
+    void tick(boolean[] keys, boolean[] secondKeys) {
+        if (gameOver) {
+            return;
+        }
+        FlightEvents.Tick tickEvent = FlightEvents.Tick.start();
+        tickCount++;
+
+        // Remember where everything was so the renderer can interpolate towards this tick
+        // (animals remember theirs when they step)
+        previousCameraX = cameraX;
+        for (int i = 0; i < players.length; i++) {
+            previousCameras[i] = cameras[i];
+            players[i].savePosition();
+        }
+
+        long updateStart = profiler.begin();
+        for (int i = 0; i < players.length; i++) {
+            Player current = players[i];
+            if (current.lives <= 0) {
+                continue; // Out of the game, waiting for the other player
+            }
+            boolean couldJump = current.onGround;
+            current.update(i == 0 ? keys : secondKeys, groundY);
+            if (couldJump && !current.onGround) {
+                events.jumped();
+            }
+        }
+        updateCameras();
+
+        updateEntities();
+        profiler.end(Profiler.Span.UPDATE, updateStart);
+
+        long collisionStart = profiler.begin();
+        checkCollisions();
+        profiler.end(Profiler.Span.COLLISIONS, collisionStart);
+        if (streamer != null) {
+            if (streamer.update(cameraX, frontCameraX)) {
+                stampSpawned();
+            }
+            updateEndlessLevel();
+        } else if (fruits.isEmpty()) {
+            nextLevel();
+        }
+        if (leader() == null) {
+            gameOver = true;
+            events.gameOver();
+        }
+        if (tickEvent != null) {
+            tickEvent.finish(this);
+        }
+    }
+
+    // Each view eases a tenth of the way towards a third of the view behind its player; the view
+    // of a player who is out follows the one still running
+    private void updateCameras() {
+        Player leader = leader();
+        cameraX = Integer.MAX_VALUE;
+        frontCameraX = Integer.MIN_VALUE;
+        for (int i = 0; i < players.length; i++) {
+            boolean running = players[i].lives > 0;
+            Player followed = running ? players[i] : leader;
+            int targetCameraX = followed.x - viewWidth / 3;
+            cameras[i] += (targetCameraX - cameras[i]) * 0.1;
+            if (running) {
+                cameraX = Math.min(cameraX, cameras[i]);
+                frontCameraX = Math.max(frontCameraX, cameras[i]);
+            }
+        }
+    }
+
+    private void resetCameras() {
+        for (int i = 0; i < players.length; i++) {
+            cameras[i] = 0;
+            previousCameras[i] = 0;
+        }
+        cameraX = 0;
+        previousCameraX = 0;
+        frontCameraX = 0;
+    }
+
+    // The player furthest ahead among those with lives left; null once all are out
+    Player leader() {
+        Player leader = null;
+        for (Player candidate : players) {
+            if (candidate.lives > 0 && (leader == null || candidate.x > leader.x)) {
+                leader = candidate;
+            }
+        }
+        return leader;
+    }
+
+    // Animals and power-ups that can reach the view (plus ACTIVE_MARGIN) take their step; the
+    // rest stay dormant and fast-forward when they come back into range; with two players the
+    // range runs from the rear view to the front one. Behind the camera in
+    // endless mode the range reaches back to the despawn line, so despawning still sees exact
+    // positions. Each step only touches its own entity (animals have their own GameRandom), so
+    // with an updatePool many awake entities run as fork-join chunks and give exactly the
+    // serial result; moving the animals in the grid stays serial afterwards. The awake ones are
+    // picked out first, so dormant entities never count towards forking.
+    private void updateEntities() {
+        activeMinX = cameraX - ACTIVE_MARGIN - (streamer != null ? LevelStreamer.CHUNK_WIDTH : 0);
+        activeMaxX = frontCameraX + viewWidth + ACTIVE_MARGIN;
+        collectAwake();
+        if (updatePool != null && awakeCount >= PARALLEL_THRESHOLD) {
+            forkUpdate();
+        } else {
+            updateRange(0, awakeCount);
+        }
+
+        activeAnimals = 0;
+        maxAnimalStep = 0;
+        for (int k = 0; k < awakeCount && awake[k] < animals.size(); k++) {
+            int i = awake[k];
+            animals.moved(i);
+            activeAnimals++;
+            maxAnimalStep = Math.max(maxAnimalStep, Math.abs(animals.get(i).stepDx(tickCount)));
+        }
+    }
+
+    // Update indexes run over the animals first, then the power-ups
+    private void collectAwake() {
+        int animalCount = animals.size();
+        int count = animalCount + powerUps.size();
+        if (awake.length < count) {
+            awake = new int[Math.max(count, awake.length * 2)];
+        }
+        awakeCount = 0;
+        for (int i = 0; i < animalCount; i++) {
+            if (!animals.get(i).isDormant(activeMinX, activeMaxX)) {
+                awake[awakeCount++] = i;
+            }
+        }
+        for (int i = 0; i < powerUps.size(); i++) {
+            if (!powerUps.get(i).isDormant(activeMinX, activeMaxX)) {
+                awake[awakeCount++] = animalCount + i;
+            }
+        }
+    }
+
+    // Steps the awake entities from awake[from] up to awake[to]
+    private void updateRange(int from, int to) {
+        int animalCount = animals.size();
+        for (int k = from; k < to; k++) {
+            int i = awake[k];
+            if (i < animalCount) {
+                animals.get(i).updateTo(tickCount);
+            } else {
+                powerUps.get(i - animalCount).updateTo(tickCount);
+            }
+        }
+    }
+
+    // Splits the awake entities into UPDATE_CHUNKS tasks, made once and reinitialized every tick.
+    // The pool gets all but the last, which this thread runs itself before it parks until the
+    // others are done. Nothing joins: a join from outside the pool allocates a wait node each
+    // time it has to block, which on more than one core is nearly every tick.
+    private void forkUpdate() {
+        if (updateChunks == null) {
+            updateChunks = new UpdateChunk[UPDATE_CHUNKS];
+            for (int c = 0; c < updateChunks.length; c++) {
+                updateChunks[c] = new UpdateChunk();
+            }
+        }
+        for (int c = 0; c < updateChunks.length; c++) {
+            updateChunks[c].reinitialize();
+            updateChunks[c].from = (int) ((long) awakeCount * c / updateChunks.length);
+            updateChunks[c].to = (int) ((long) awakeCount * (c + 1) / updateChunks.length);
+        }
+        int forked = updateChunks.length - 1;
+        updateCaller = Thread.currentThread();
+        pendingChunks.set(forked);
+        for (int c = 0; c < forked; c++) {
+            updatePool.execute(updateChunks[c]);
+        }
+        updateRange(updateChunks[forked].from, updateChunks[forked].to);
+        while (pendingChunks.get() > 0) {
+            LockSupport.park(this);
+        }
+
+        for (int c = 0; c < forked; c++) {
+            UpdateChunk chunk = updateChunks[c];
+            // A chunk counts itself off just before the pool marks it done
+            while (!chunk.isDone()) {
+                Thread.yield();
+            }
+            if (chunk.isCompletedAbnormally()) {
+                chunk.join(); // Rethrows what the chunk threw
+            }
+        }
+    }
+
+    private final class UpdateChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            try {
+                updateRange(from, to);
+            } finally {
+                if (pendingChunks.decrementAndGet() == 0) {
+                    LockSupport.unpark(updateCaller);
+                }
+            }
+        }
+    }
+
+    // Swept collisions: the player's box travels from where it started the tick to where it is
+    // now, animals travel their step too, and whatever the player passed through is hit even
+    // if nothing overlaps at the end of the tick, however fast either of them moves. Contacts
+    // are resolved in the order they happened within the tick, so a shield picked up before an
+    // animal is reached protects from it and one picked up after does not. Only the grid cells
+    // along the path are tested, so the cost does not grow with the level. With two players the
+    // first one's contacts resolve first, so a fruit both reach in one tick goes to them.
+    void checkCollisions() {
+        for (Player current : players) {
+            if (current.lives > 0) {
+                checkCollisions(current);
+            }
+        }
+    }
+
+    private void checkCollisions(Player player) {
+        findContacts(player);
+        for (int i = 0; i < contacts.size(); i++) {
+            int id = contacts.id(i);
+            switch (contacts.kind(i)) {
+                case CONTACT_FRUIT:
+                    fruits.remove(id);
+                    score += 10 + (level * 2);
+                    events.fruitCollected();
+                    break;
+                case CONTACT_POWER_UP:
+                    int slot = powerUps.slotOf(id);
+                    player.activatePowerUp(powerUps.type[slot]);
+                    powerUps.removeAt(slot);
+                    score += 25;
+                    events.powerUpCollected();
+                    break;
+                default:
+                    // Taking damage makes the player invulnerable, so a tick does at most one hit
+                    if (!player.invulnerable) {
+                        Hazard hit = contacts.kind(i) == CONTACT_OBSTACLE ? Hazard.OBSTACLE : Hazard.ANIMAL;
+                        player.takeDamage();
+                        lastHit = hit;
+                        events.playerHit(hit);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // The detection half of checkCollisions(): fills contacts with what the player's path
+    // touches this tick, in the order it happens, and changes nothing else. Returns how many.
+    int findContacts(Player player) {
+        int dx = player.x - player.prevX;
+        int dy = player.y - player.prevY;
+        int minX = Math.min(player.prevX, player.x);
+        int maxX = Math.max(player.prevX, player.x) + player.width;
+
+        contacts.clear();
+        collectContacts(fruits, CONTACT_FRUIT, player, minX, maxX, dx, dy);
+        collectContacts(powerUps, CONTACT_POWER_UP, player, minX, maxX, dx, dy);
+        // A tick can make the player invulnerable but never ends it, so hazards can be skipped
+        if (!player.invulnerable) {
+            collectContacts(obstacles, CONTACT_OBSTACLE, player, minX, maxX, dx, dy);
+            collectContacts(animals, CONTACT_ANIMAL, player, minX - maxAnimalStep, maxX + maxAnimalStep, dx, dy);
+        }
+        contacts.sortByTime();
+        return contacts.size();
+    }
+
+    // Adds every entity in store whose box the player's path touches this tick. Nothing is
+    // removed while the cells are walked; that waits until the contacts are sorted.
+    private void collectContacts(EntityStore<?> store, int kind, Player player, int minX, int maxX, int dx, int dy) {
+        for (int c = store.firstCell(minX); c <= store.lastCell(maxX); c++) {
+            for (int i = 0; i < store.cellCount(c); i++) {
+                int id = store.cellId(c, i);
+                int slot = store.slotOf(id);
+                int slotDx = kind == CONTACT_ANIMAL ? animals.get(slot).stepDx(tickCount) : 0;
+                double time = store.sweep(slot, slotDx, player.prevX, player.prevY,
+                        player.width, player.height, dx, dy);
+                if (time != EntityStore.MISS) {
+                    contacts.add(time, kind, id);
+                }
+            }
+        }
+    }
+
+    // In endless mode the level follows the distance the leading player has run instead of
+    // cleared fruit
+    private void updateEndlessLevel() {
+        Player leader = leader();
+        int distanceLevel = LevelStreamer.levelAt(leader != null ? leader.x : player.x);
+        if (distanceLevel > level) {
+            FlightEvents.LevelChange.emit(level, distanceLevel, score, true);
+            level = distanceLevel;
+            score += 50 + (level * 10);
+            gameSpeed = 1 + (level - 1) / 3;
+            events.levelUp(level);
+        }
+    }
+
+    private void nextLevel() {
+        FlightEvents.LevelChange.emit(level, level + 1, score, false);
+        level++;
+        score += 50 + (level * 10);
+        generateLevel();
+        for (Player current : players) {
+            current.x = 50;
+            // Posisi Y pemain akan diatur ulang agar bagian bawahnya menjejak di GROUND_Y
+            current.y = groundY - current.height;
+            current.savePosition();
+        }
+        resetCameras();
+        events.levelUp(level);
+    }
+
+    // Level progress for the HUD, 0..1
+    double levelProgress() {
+        if (streamer != null) {
+            Player leader = leader();
+            return LevelStreamer.levelProgress(leader != null ? leader.x : player.x);
+        }
+        int totalFruits = 10 + level * 3;
+        int fruitsCollected = totalFruits - fruits.size();
+        return (double) fruitsCollected / totalFruits;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    int activeAnimals() {
+        return activeAnimals;
+    }
+
+    int entityCount() {
+        return fruits.size() + animals.size() + powerUps.size() + obstacles.size();
+    }
+
+    long poolHits() {
+        return fruits.pool().hits() + animals.pool().hits() + powerUps.pool().hits() + obstacles.pool().hits();
+    }
+
+    long poolMisses() {
+        return fruits.pool().misses() + animals.pool().misses() + powerUps.pool().misses() + obstacles.pool().misses();
+    }
+
+    int poolIdle() {
+        return fruits.pool().idle() + animals.pool().idle() + powerUps.pool().idle() + obstacles.pool().idle();
+    }
+}
@@ -0,0 +1,27 @@
+package forestrunner;
+
+// What the simulation reports back to the shell that hosts it (sound, UI). Every callback
+// defaults to doing nothing, so a headless run can pass NONE. Callbacks run on the tick thread
+// inside the tick; the game hands them to an EventBus so nothing slow happens there.
+interface WorldEvents {
+    WorldEvents NONE = new WorldEvents() {
+    };
+
+    default void fruitCollected() {
+    }
+
+    default void powerUpCollected() {
+    }
+
+    default void playerHit(World.Hazard hazard) {
+    }
+
+    default void levelUp(int level) {
+    }
+
+    default void gameOver() {
+    }
+
+    default void jumped() {
+    }
+}
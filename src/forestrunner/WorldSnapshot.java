@@ -0,0 +1,199 @@
+package forestrunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Save states of a whole game in one memory-mapped file. The file stays mapped while the game
+// runs, so a save is World.writeTo() straight into the mapping plus a CRC, with nothing to
+// copy. Each class writes its own fields by hand, so there is no reflection and the format only
+// changes when the code does.
+//
+// Saves alternate between two slots and a slot only counts when its CRC matches, so a save cut
+// short by a crash leaves the previous one to resume from. The slot's bytes are forced to disk
+// before its sequence number is written, and the sequence after, so the OS writing pages back
+// out of order cannot make a half-written slot the newest. A game that outgrows a slot grows
+// the file in place: slot 0 stays where it is and slot 1 is copied out before the header
+// points past it, so the file is valid at every step.
+//
+// File layout (big-endian): magic "FRSS", version byte, slot size int, then two slots of that
+// size. A slot: sequence long (0 while empty), payload length int, payload CRC32 int, payload.
+// Payload, as World.writeTo() writes it:
+//   endless byte, seed long, random state long, tick long, game over byte, score int,
+//   level int, game speed int, camera x int, previous camera x int, front camera x int,
+//   last hazard byte (-1 none), player count byte
+//   per player: x, y, prevX, prevY, velocityY ints, onGround, facingRight bytes, lives int,
+//     invulnerable byte, timer int, speed boost byte, timer int, jump boost byte, timer int,
+//     clip byte, elapsed micros long, camera x int, previous camera x int
+//   endless only: next chunk int, despawned before int, waiting chunk count int, the waiting
+//     chunk ints
+//   then per store a count int and its entities in slot order:
+//     fruit: x, y ints, color byte
+//     animal: x, y, prevX, startX, patrol, speed ints, direction byte, move timer int,
+//       turn at int, type byte, random state long, simulated tick long, elapsed micros long
+//     power-up: x, y ints, type, float offset, float direction bytes, simulated tick long
+//     obstacle: x, y ints
+final class WorldSnapshot implements Closeable {
+    private static final int MAGIC = 0x46525353; // "FRSS"
+    // Bumped whenever what World.writeTo() writes changes; 2: a camera per player, 3: endless
+    // chunks waiting for room
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 9;
+    private static final int SLOT_HEADER_BYTES = 16;
+    private static final int INITIAL_SLOT_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer file;
+    private int slotBytes;
+    private int newestSlot = -1; // -1 while the file holds no valid save
+    private long sequence;       // Of the newest save
+
+    private WorldSnapshot(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    // Opens the snapshot file, creating it when missing. A file that is not a snapshot, or is
+    // one from another version of the game, is an error rather than something to overwrite.
+    static WorldSnapshot open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        WorldSnapshot snapshot = new WorldSnapshot(path, channel);
+        try {
+            if (channel.size() == 0) {
+                snapshot.map(INITIAL_SLOT_BYTES);
+                snapshot.file.putInt(0, MAGIC).put(4, (byte) VERSION).putInt(5, INITIAL_SLOT_BYTES);
+                snapshot.file.force(0, HEADER_BYTES);
+            } else {
+                snapshot.readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return snapshot;
+    }
+
+    // Overwrites the older slot with the world as it is now
+    void save(World world) throws IOException {
+        while (true) {
+            int slot = newestSlot == 0 ? 1 : 0;
+            int start = slotStart(slot);
+            ByteBuffer payload = file.slice(start + SLOT_HEADER_BYTES, slotBytes - SLOT_HEADER_BYTES);
+            try {
+                world.writeTo(payload);
+            } catch (BufferOverflowException e) {
+                grow();
+                continue;
+            }
+            int length = payload.position();
+            crc.reset();
+            crc.update(file.slice(start + SLOT_HEADER_BYTES, length));
+            // The sequence goes in last, once the rest is on disk: until then the slot reads as the
+            // save it used to hold, and after it the CRC decides
+            file.putInt(start + 8, length).putInt(start + 12, (int) crc.getValue());
+            file.force(start + 8, SLOT_HEADER_BYTES - 8 + length);
+            file.putLong(start, sequence + 1);
+            file.force(start, 8);
+            sequence++;
+            newestSlot = slot;
+            return;
+        }
+    }
+
+    // Loads the newest valid save into world; false when there is none
+    boolean restore(World world) throws IOException {
+        if (newestSlot < 0) {
+            return false;
+        }
+        int start = slotStart(newestSlot);
+        int length = file.getInt(start + 8);
+        try {
+            world.readFrom(file.slice(start + SLOT_HEADER_BYTES, length));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Could not restore " + path + ": " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    // Bytes in the newest save, 0 when there is none
+    int savedBytes() {
+        return newestSlot < 0 ? 0 : file.getInt(slotStart(newestSlot) + 8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException(path + " is not a Forest Runner snapshot");
+        }
+        file = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a Forest Runner snapshot");
+        }
+        int version = file.get(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        slotBytes = file.getInt(5);
+        if (slotBytes < SLOT_HEADER_BYTES || channel.size() < HEADER_BYTES + 2L * slotBytes) {
+            throw new IOException(path + " is truncated");
+        }
+        for (int slot = 0; slot < 2; slot++) {
+            long slotSequence = file.getLong(slotStart(slot));
+            if (slotSequence > sequence && isValid(slot)) {
+                sequence = slotSequence;
+                newestSlot = slot;
+            }
+        }
+    }
+
+    private boolean isValid(int slot) {
+        int start = slotStart(slot);
+        int length = file.getInt(start + 8);
+        if (length < 0 || length > slotBytes - SLOT_HEADER_BYTES) {
+            return false;
+        }
+        crc.reset();
+        crc.update(file.slice(start + SLOT_HEADER_BYTES, length));
+        return (int) crc.getValue() == file.getInt(start + 12);
+    }
+
+    // Doubles the slot size. Slot 1 is copied to where it will live before the header says so,
+    // and slot 0 does not move, so a crash at any point leaves a file that reads correctly.
+    private void grow() throws IOException {
+        int oldSlotBytes = slotBytes;
+        int oldSlot1 = slotStart(1);
+        map(oldSlotBytes * 2);
+        file.put(HEADER_BYTES + slotBytes, file.slice(oldSlot1, oldSlotBytes), 0, oldSlotBytes);
+        file.force(HEADER_BYTES + slotBytes, oldSlotBytes);
+        file.putInt(5, slotBytes);
+        file.force(5, 4);
+    }
+
+    // Maps a file of two slots of the given size; mapping past the end grows the file
+    private void map(int newSlotBytes) throws IOException {
+        long size = HEADER_BYTES + 2L * newSlotBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("snapshot would not fit in " + path);
+        }
+        file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        slotBytes = newSlotBytes;
+    }
+
+    private int slotStart(int slot) {
+        return HEADER_BYTES + slot * slotBytes;
+    }
+}